@@ -2,6 +2,7 @@ package com.safarsathi.config;
 
 import com.safarsathi.entity.*;
 import com.safarsathi.repository.*;
+import com.safarsathi.util.GeoFenceUtil;
 import com.safarsathi.util.HashUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -72,7 +73,8 @@ public class DatabaseSeeder implements CommandLineRunner {
                 .idExpiry(java.time.Instant.now().plus(365, java.time.temporal.ChronoUnit.DAYS).toString())
                 .currentLat(31.2554)
                 .currentLng(75.7048)
-                .lastSeen(java.time.Instant.now().toString())
+                .location(GeoFenceUtil.toGeoPoint(31.2554, 75.7048))
+                .lastSeen(java.time.Instant.now())
                 .safetyScore(72.0)
                 .build();
         touristRepository.save(tourist);
@@ -213,7 +215,7 @@ public class DatabaseSeeder implements CommandLineRunner {
     // ── Police departments (Punjab / LPU area) ─────────────────────────────
     private void seedPoliceDepartments() {
         policeDepartmentRepository.deleteAll();
-        policeDepartmentRepository.saveAll(List.of(
+        policeDepartmentRepository.saveAll(withLocation(List.of(
 
                 // Admin / Control Center — must stay
                 PoliceDepartment.builder()
@@ -328,7 +330,12 @@ public class DatabaseSeeder implements CommandLineRunner {
                         .city("Nakodar").district("Kapurthala").state("Punjab")
                         .contactNumber("01821-244100").isActive(true)
                         .build()
-        ));
+        )));
+    }
+
+    private static List<PoliceDepartment> withLocation(List<PoliceDepartment> departments) {
+        departments.forEach(d -> d.setLocation(GeoFenceUtil.toGeoPoint(d.getLatitude(), d.getLongitude())));
+        return departments;
     }
 
     // ── Hospitals (Punjab / LPU area) ───────────────────────────────────────
@@ -0,0 +1,45 @@
+package com.safarsathi.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Backfills the GeoJSON location fields used by jurisdiction queries on documents written
+ * before they existed. Runs server-side as pipeline updates, so it is safe while the app serves traffic.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeoLocationMigration implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        backfill("tourists", "currentLat", "currentLng");
+        backfill("alerts", "latitude", "longitude");
+        backfill("policedepartments", "latitude", "longitude");
+    }
+
+    private void backfill(String collection, String latField, String lngField) {
+        Document filter = new Document("location", new Document("$exists", false))
+                .append(latField, new Document("$type", "number"))
+                .append(lngField, new Document("$type", "number"));
+        Document setLocation = new Document("$set", new Document("location",
+                new Document("type", "Point")
+                        .append("coordinates", List.of("$" + lngField, "$" + latField))));
+
+        long modified = mongoTemplate.getCollection(collection)
+                .updateMany(filter, List.of(setLocation))
+                .getModifiedCount();
+        if (modified > 0) {
+            log.info("Backfilled GeoJSON location on {} {} documents.", modified, collection);
+        }
+    }
+}
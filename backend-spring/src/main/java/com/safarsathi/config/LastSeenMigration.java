@@ -0,0 +1,49 @@
+package com.safarsathi.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Converts tourists.lastSeen from ISO strings to native BSON dates so it can be range-scanned
+ * through its index. Runs server-side as a pipeline update; an unparsable value is moved to
+ * lastSeenInvalid (and lastSeen cleared) so it is kept for inspection instead of being lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastSeenMigration implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        Document filter = new Document("lastSeen", new Document("$type", "string"));
+        Document toDate = new Document("$convert", new Document("input", "$lastSeen")
+                .append("to", "date")
+                .append("onError", null)
+                .append("onNull", null));
+        Document keepInvalid = new Document("$cond", List.of(
+                new Document("$eq", List.of(toDate, null)), "$lastSeen", "$$REMOVE"));
+        Document setLastSeen = new Document("$set", new Document("lastSeen", toDate)
+                .append("lastSeenInvalid", keepInvalid));
+
+        long modified = mongoTemplate.getCollection("tourists")
+                .updateMany(filter, List.of(setLastSeen))
+                .getModifiedCount();
+        if (modified > 0) {
+            log.info("Converted lastSeen to a native date on {} tourist documents.", modified);
+            long invalid = mongoTemplate.getCollection("tourists")
+                    .countDocuments(new Document("lastSeenInvalid", new Document("$exists", true)));
+            if (invalid > 0) {
+                log.warn("{} tourist documents have an unparsable lastSeen; the original is kept in lastSeenInvalid.",
+                        invalid);
+            }
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package com.safarsathi.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 /**
  * Enables automatic @CreatedDate and @LastModifiedDate population.
@@ -9,4 +17,26 @@ import org.springframework.data.mongodb.config.EnableMongoAuditing;
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new IsoStringToInstantConverter()));
+    }
+
+    /**
+     * Reads timestamps stored as ISO-8601 strings (e.g. lastSeen before it became a native date)
+     * while {@link LastSeenMigration} rewrites them in place. An unparsable value fails the read
+     * rather than being mapped to null, which a later save would persist.
+     */
+    @ReadingConverter
+    static class IsoStringToInstantConverter implements Converter<String, Instant> {
+        @Override
+        public Instant convert(String source) {
+            try {
+                return Instant.parse(source);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Stored timestamp is not ISO-8601: '" + source + "'", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package com.safarsathi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (inactivity sweeps and other periodic work). The jobs share
+ * a pool of spring.task.scheduling.pool.size threads rather than Spring's single default thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
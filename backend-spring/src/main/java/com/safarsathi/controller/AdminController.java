@@ -1,14 +1,27 @@
 package com.safarsathi.controller;
 
+import com.safarsathi.dto.HeatMapResponse;
+import com.safarsathi.dto.IdCredentialCheck;
+import com.safarsathi.dto.IdCredentialVerifyRequest;
+import com.safarsathi.dto.TouristDirectoryPage;
+import com.safarsathi.dto.TouristDirectoryQuery;
 import com.safarsathi.entity.Alert;
 import com.safarsathi.entity.PoliceDepartment;
 import com.safarsathi.entity.Tourist;
+import com.safarsathi.security.IdCredentialService;
 import com.safarsathi.service.AdminService;
 import com.safarsathi.service.AlertService;
 import com.safarsathi.service.AuthService;
 import com.safarsathi.service.BlockchainService;
+import com.safarsathi.service.DangerModelEvaluator;
+import com.safarsathi.service.DangerRasterService;
+import com.safarsathi.service.HeatMapService;
+import com.safarsathi.service.IdVerificationService;
+import com.safarsathi.service.JurisdictionService;
+import com.safarsathi.service.TouristDirectoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -24,6 +37,13 @@ public class AdminController {
     private final AlertService alertService;
     private final AuthService authService;
     private final BlockchainService blockchainService;
+    private final IdVerificationService idVerificationService;
+    private final IdCredentialService idCredentialService;
+    private final TouristDirectoryService touristDirectoryService;
+    private final JurisdictionService jurisdictionService;
+    private final HeatMapService heatMapService;
+    private final DangerModelEvaluator dangerModelEvaluator;
+    private final DangerRasterService dangerRasterService;
 
     /**
      * POST /api/admin/login
@@ -70,41 +90,68 @@ public class AdminController {
         if (hash == null || hash.isBlank()) {
             return ResponseEntity.badRequest().body(Map.of("message", "hash is required"));
         }
-        try {
-            Tourist tourist = authService.verifyIdHash(hash);
-            boolean isProofValid = blockchainService.verifyIDProof(hash);
-
-            String passportPartial = tourist.getPassportNumber() != null
-                    ? tourist.getPassportNumber().substring(0, 2) + "****" : "";
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("valid", isProofValid);
-            result.put("name", tourist.getName());
-            result.put("passport_partial", passportPartial);
-            result.put("id_expiry", tourist.getIdExpiry());
-            result.put("blockchain_status",
-                    isProofValid ? "VERIFIED ON IMMUTABLE LOG" : "PROOF FAILED");
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            return ResponseEntity.status(500)
-                    .body(Map.of("success", false, "message", e.getMessage()));
+        return idVerificationService.verify(hash)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404)
+                        .body(Map.of("success", false, "message", "Digital ID not found or invalid.")));
+    }
+
+    /**
+     * GET /api/admin/id/proof?hash=...
+     * Merkle inclusion proof and block header for an issued ID.
+     */
+    @GetMapping("/id/proof")
+    public ResponseEntity<?> idProof(@RequestParam String hash) {
+        if (hash == null || hash.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "hash is required"));
         }
+        return blockchainService.getProof(hash)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("message", "Digital ID not found.")));
+    }
+
+    /**
+     * GET /api/admin/id/credentials/key
+     * Public key checkpoint devices use to verify ID credentials offline.
+     */
+    @GetMapping("/id/credentials/key")
+    public ResponseEntity<Map<String, Object>> idCredentialKey() {
+        return ResponseEntity.ok(idCredentialService.publicKey());
+    }
+
+    /**
+     * GET /api/admin/id/credentials/revocations?since=0
+     */
+    @GetMapping("/id/credentials/revocations")
+    public ResponseEntity<Map<String, Object>> idCredentialRevocations(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(idCredentialService.revocationsSince(since));
+    }
+
+    /**
+     * POST /api/admin/id/credentials/verify
+     * Bulk verification of scanned credentials; results are in request order.
+     */
+    @PostMapping("/id/credentials/verify")
+    public ResponseEntity<List<IdCredentialCheck>> verifyIdCredentials(@RequestBody IdCredentialVerifyRequest request) {
+        return ResponseEntity.ok(idCredentialService.verifyAll(request.getTokens()));
     }
 
     /**
      * GET /api/admin/alerts
      */
     @GetMapping("/alerts")
-    public ResponseEntity<List<Alert>> getAlerts() {
-        return ResponseEntity.ok(alertService.getActiveAlerts());
+    public ResponseEntity<List<Alert>> getAlerts(Authentication authentication) {
+        return ResponseEntity.ok(alertService.getActiveAlerts(
+                jurisdictionService.resolve(authentication.getName())));
     }
 
     /**
      * GET /api/admin/alerts/all
      */
     @GetMapping("/alerts/all")
-    public ResponseEntity<List<Alert>> getAlertHistory() {
-        return ResponseEntity.ok(alertService.getAllAlerts());
+    public ResponseEntity<List<Alert>> getAlertHistory(Authentication authentication) {
+        return ResponseEntity.ok(alertService.getAllAlerts(
+                jurisdictionService.resolve(authentication.getName())));
     }
 
     /**
@@ -130,7 +177,95 @@ public class AdminController {
      * GET /api/admin/tourists
      */
     @GetMapping("/tourists")
-    public ResponseEntity<List<Tourist>> getTourists() {
-        return ResponseEntity.ok(authService.listTourists());
+    public ResponseEntity<List<Tourist>> getTourists(Authentication authentication) {
+        return ResponseEntity.ok(authService.listTourists(
+                jurisdictionService.resolve(authentication.getName())));
+    }
+
+    /**
+     * GET /api/admin/tourists/directory?status=&minScore=&maxScore=&seenWithinMinutes=&inactiveForMinutes=
+     *     &minLat=&maxLat=&minLng=&maxLng=&nationality=&travelType=&cursor=&limit=
+     */
+    @GetMapping("/tourists/directory")
+    public ResponseEntity<TouristDirectoryPage> getTouristDirectory(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Double minScore,
+            @RequestParam(required = false) Double maxScore,
+            @RequestParam(required = false) Integer seenWithinMinutes,
+            @RequestParam(required = false) Integer inactiveForMinutes,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng,
+            @RequestParam(required = false) String nationality,
+            @RequestParam(required = false) String travelType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        TouristDirectoryQuery query = TouristDirectoryQuery.builder()
+                .status(status)
+                .minScore(minScore)
+                .maxScore(maxScore)
+                .seenWithinMinutes(seenWithinMinutes)
+                .inactiveForMinutes(inactiveForMinutes)
+                .minLat(minLat)
+                .maxLat(maxLat)
+                .minLng(minLng)
+                .maxLng(maxLng)
+                .nationality(nationality)
+                .travelType(travelType)
+                .cursor(cursor)
+                .limit(limit)
+                .build();
+        return ResponseEntity.ok(touristDirectoryService.search(
+                query, jurisdictionService.resolve(authentication.getName())));
+    }
+
+    /**
+     * GET /api/admin/heatmap?minLat=..&maxLat=..&minLng=..&maxLng=..&zoom=..
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<HeatMapResponse> getHeatMap(
+            @RequestParam double minLat,
+            @RequestParam double maxLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLng,
+            @RequestParam(defaultValue = "12") int zoom,
+            Authentication authentication) {
+        return ResponseEntity.ok(heatMapService.getHeatMap(minLat, maxLat, minLng, maxLng, zoom,
+                jurisdictionService.resolve(authentication.getName())));
+    }
+
+    /**
+     * GET /api/admin/ai/evaluation?sample=200&sidecar=true
+     */
+    @GetMapping("/ai/evaluation")
+    public ResponseEntity<Map<String, Object>> evaluateDangerModel(
+            @RequestParam(defaultValue = "200") int sample,
+            @RequestParam(defaultValue = "true") boolean sidecar) {
+        return ResponseEntity.ok(dangerModelEvaluator.evaluate(sample, sidecar));
+    }
+
+    /**
+     * GET /api/admin/ai/raster
+     */
+    @GetMapping("/ai/raster")
+    public ResponseEntity<Map<String, Object>> getDangerRasterStatus() {
+        return ResponseEntity.ok(dangerRasterService.getStatus());
+    }
+
+    /**
+     * POST /api/admin/ai/raster/rebuild
+     */
+    @PostMapping("/ai/raster/rebuild")
+    public ResponseEntity<?> rebuildDangerRaster() {
+        try {
+            if (!dangerRasterService.rebuildAsync()) {
+                return ResponseEntity.status(409).body(Map.of("message", "Raster rebuild already in progress"));
+            }
+            return ResponseEntity.accepted().body(Map.of("message", "Raster rebuild started"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("message", e.getMessage()));
+        }
     }
 }
@@ -89,6 +89,8 @@ public class AdminPoliceController {
         map.put("state", dept.getState());
         map.put("contactNumber", dept.getContactNumber());
         map.put("isActive", dept.getIsActive());
+        map.put("jurisdictionScope", dept.getJurisdictionScope());
+        map.put("jurisdictionRadiusKm", dept.getJurisdictionRadiusKm());
         return map;
     }
 }
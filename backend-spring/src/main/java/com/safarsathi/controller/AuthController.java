@@ -51,6 +51,20 @@ public class AuthController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("message", "Missing or invalid token"));
+        }
+        if (!authService.logout(authHeader.substring(7))) {
+            return ResponseEntity.status(401).body(Map.of("message", "Missing or invalid token"));
+        }
+        return ResponseEntity.ok(Map.of("acknowledged", true, "message", "Logged out."));
+    }
+
     /**
      * GET /api/auth/profile/{touristId}
      */
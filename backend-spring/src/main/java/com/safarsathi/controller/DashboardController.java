@@ -5,6 +5,7 @@ import com.safarsathi.dto.TouristDashboardResponse;
 import com.safarsathi.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -20,8 +21,8 @@ public class DashboardController {
      * GET /api/admin/dashboard/state
      */
     @GetMapping("/admin/dashboard/state")
-    public ResponseEntity<AdminDashboardResponse> adminDashboard() {
-        return ResponseEntity.ok(dashboardService.getAdminDashboardState());
+    public ResponseEntity<AdminDashboardResponse> adminDashboard(Authentication authentication) {
+        return ResponseEntity.ok(dashboardService.getAdminDashboardState(authentication.getName()));
     }
 
     /**
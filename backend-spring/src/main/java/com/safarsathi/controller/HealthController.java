@@ -1,10 +1,12 @@
 package com.safarsathi.controller;
 
+import com.safarsathi.security.PasswordHashingService;
+import com.safarsathi.service.AISafetyService;
+import com.safarsathi.service.IdVerificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.lang.management.ManagementFactory;
@@ -12,17 +14,37 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
-@RequestMapping("/api/health")
 @RequiredArgsConstructor
 public class HealthController {
 
     private final MongoTemplate mongoTemplate;
+    private final AISafetyService aiSafetyService;
+    private final PasswordHashingService passwordHashingService;
+    private final IdVerificationService idVerificationService;
 
     /**
      * GET /api/health
+     * Public liveness check: status, database connectivity and uptime only.
      */
-    @GetMapping
+    @GetMapping("/api/health")
     public ResponseEntity<Map<String, Object>> health() {
+        return ResponseEntity.ok(basicHealth());
+    }
+
+    /**
+     * GET /api/admin/health
+     * Health plus cache, password hashing and ID verification diagnostics (admins only).
+     */
+    @GetMapping("/api/admin/health")
+    public ResponseEntity<Map<String, Object>> diagnostics() {
+        Map<String, Object> response = basicHealth();
+        response.put("safetyScoreCache", aiSafetyService.getCacheStats());
+        response.put("passwordHashing", passwordHashingService.getStats());
+        response.put("idVerification", idVerificationService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> basicHealth() {
         Map<String, Object> response = new LinkedHashMap<>();
         response.put("status", "ok");
 
@@ -35,7 +57,6 @@ public class HealthController {
 
         double uptimeSeconds = ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
         response.put("uptime", uptimeSeconds);
-
-        return ResponseEntity.ok(response);
+        return response;
     }
 }
@@ -34,6 +34,17 @@ public class NotificationsController {
         return ResponseEntity.ok(items);
     }
 
+    /**
+     * GET /api/tourist/{touristId}/notifications/unread-count
+     */
+    @GetMapping("/tourist/{touristId}/notifications/unread-count")
+    public ResponseEntity<?> unreadCount(@PathVariable String touristId) {
+        if (touristId == null || touristId.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid tourist ID."));
+        }
+        return ResponseEntity.ok(Map.of("unread", notificationService.getUnreadCount(touristId)));
+    }
+
     /**
      * POST /api/tourist/{touristId}/notifications/{notificationId}/read
      */
@@ -1,14 +1,19 @@
 package com.safarsathi.controller;
 
+import com.safarsathi.dto.NearbyFacilitiesResponse;
 import com.safarsathi.entity.Hospital;
 import com.safarsathi.repository.HospitalRepository;
+import com.safarsathi.service.NearbyFacilityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/hospitals")
@@ -16,6 +21,7 @@ import java.util.List;
 public class PublicHospitalsController {
 
     private final HospitalRepository hospitalRepository;
+    private final NearbyFacilityService nearbyFacilityService;
 
     /**
      * GET /api/hospitals (public endpoint)
@@ -24,4 +30,17 @@ public class PublicHospitalsController {
     public ResponseEntity<List<Hospital>> listPublicHospitals() {
         return ResponseEntity.ok(hospitalRepository.findByIsActiveTrue());
     }
+
+    /**
+     * GET /api/hospitals/nearest?lat=..&lng=..&k=5&emergencyOnly=true (public endpoint)
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<NearbyFacilitiesResponse> nearestHospitals(@RequestParam double lat,
+                                                                     @RequestParam double lng,
+                                                                     @RequestParam(required = false) Integer k,
+                                                                     @RequestParam(defaultValue = "false") boolean emergencyOnly) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(nearbyFacilityService.getCacheSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(nearbyFacilityService.nearestHospitals(lat, lng, k, emergencyOnly));
+    }
 }
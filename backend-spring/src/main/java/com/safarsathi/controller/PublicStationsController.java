@@ -1,16 +1,21 @@
 package com.safarsathi.controller;
 
+import com.safarsathi.dto.NearbyFacilitiesResponse;
 import com.safarsathi.entity.PoliceDepartment;
 import com.safarsathi.repository.PoliceDepartmentRepository;
+import com.safarsathi.service.NearbyFacilityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,6 +24,7 @@ import java.util.stream.Collectors;
 public class PublicStationsController {
 
     private final PoliceDepartmentRepository policeDepartmentRepository;
+    private final NearbyFacilityService nearbyFacilityService;
 
     /**
      * GET /api/police-stations (public endpoint)
@@ -32,6 +38,18 @@ public class PublicStationsController {
         return ResponseEntity.ok(stations);
     }
 
+    /**
+     * GET /api/police-stations/nearest?lat=..&lng=..&k=5 (public endpoint)
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<NearbyFacilitiesResponse> nearestStations(@RequestParam double lat,
+                                                                    @RequestParam double lng,
+                                                                    @RequestParam(required = false) Integer k) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(nearbyFacilityService.getCacheSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(nearbyFacilityService.nearestStations(lat, lng, k));
+    }
+
     private Map<String, Object> stripPassword(PoliceDepartment dept) {
         Map<String, Object> map = new LinkedHashMap<>();
         map.put("id", dept.getId());
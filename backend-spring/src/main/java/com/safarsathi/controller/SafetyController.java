@@ -1,34 +1,75 @@
 package com.safarsathi.controller;
 
 import com.safarsathi.dto.ApiResponse;
-import com.safarsathi.entity.RiskZone;
+import com.safarsathi.dto.RouteSafetyRequest;
+import com.safarsathi.dto.RouteSafetyResponse;
+import com.safarsathi.dto.SafetyCheckBatchRequest;
+import com.safarsathi.dto.SafetyCheckPoint;
 import com.safarsathi.service.AISafetyService;
-import com.safarsathi.service.RiskZoneService;
-import com.safarsathi.util.GeoFenceUtil;
-import lombok.RequiredArgsConstructor;
+import com.safarsathi.service.RiskZoneIndex;
+import com.safarsathi.service.RouteSafetyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/safety")
 @CrossOrigin(origins = "http://localhost:5173")
-@RequiredArgsConstructor
 public class SafetyController {
 
     private final AISafetyService aiSafetyService;
-    private final RiskZoneService riskZoneService;
+    private final RiskZoneIndex riskZoneIndex;
+    private final RouteSafetyService routeSafetyService;
+    private final int maxBatchPoints;
+    private final EndpointLimit checkLimit;
+    private final EndpointLimit batchLimit;
+    private final EndpointLimit routeLimit;
+
+    public SafetyController(AISafetyService aiSafetyService,
+                            RiskZoneIndex riskZoneIndex,
+                            RouteSafetyService routeSafetyService,
+                            @Value("${app.safety.batch.max-points:200}") int maxBatchPoints,
+                            @Value("${app.safety.endpoints.check.max-concurrent:256}") int checkMaxConcurrent,
+                            @Value("${app.safety.endpoints.check.timeout-ms:2500}") long checkTimeoutMs,
+                            @Value("${app.safety.endpoints.batch.max-concurrent:32}") int batchMaxConcurrent,
+                            @Value("${app.safety.endpoints.batch.timeout-ms:5000}") long batchTimeoutMs,
+                            @Value("${app.safety.endpoints.route.max-concurrent:16}") int routeMaxConcurrent,
+                            @Value("${app.safety.endpoints.route.timeout-ms:5000}") long routeTimeoutMs) {
+        this.aiSafetyService = aiSafetyService;
+        this.riskZoneIndex = riskZoneIndex;
+        this.routeSafetyService = routeSafetyService;
+        this.maxBatchPoints = maxBatchPoints;
+        this.checkLimit = new EndpointLimit(checkMaxConcurrent, checkTimeoutMs);
+        this.batchLimit = new EndpointLimit(batchMaxConcurrent, batchTimeoutMs);
+        this.routeLimit = new EndpointLimit(routeMaxConcurrent, routeTimeoutMs);
+    }
 
+    /**
+     * GET /api/v1/safety/check?lat=..&lon=..&hour=..
+     * Asynchronous: the servlet thread is released while the score is resolved.
+     */
     @GetMapping("/check")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> checkSafety(
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, Object>>>> checkSafety(
             @RequestParam(required = false) Double latitude,
             @RequestParam(required = false) Double longitude,
             @RequestParam(name = "lat", required = false) Double lat,
@@ -39,29 +80,98 @@ public class SafetyController {
         Double resolvedLon = longitude != null ? longitude : lon;
 
         if (resolvedLat == null || resolvedLon == null) {
-            return ResponseEntity.badRequest().body(
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
                     ApiResponse.error(
                             "INVALID_COORDINATES",
                             "latitude/longitude or lat/lon query parameters are required"
                     )
-            );
+            ));
         }
 
         int resolvedHour = normalizeHour(hour);
-        double dangerScore = aiSafetyService.getRealTimeSafetyScore(resolvedLat, resolvedLon, resolvedHour);
-        boolean isNearAdminZone = isNearAdminRiskZone(resolvedLat, resolvedLon);
+        return checkLimit.run(() -> aiSafetyService
+                .getRealTimeSafetyScoreAsync(resolvedLat, resolvedLon, resolvedHour)
+                .thenApply(dangerScore -> ResponseEntity.ok(ApiResponse.ok(buildResult(
+                        dangerScore, riskZoneIndex.isInAnyZone(resolvedLat, resolvedLon), resolvedHour)))));
+    }
+
+    /**
+     * POST /api/v1/safety/check/batch  { "points": [ { "lat": .., "lon": .., "hour": .. }, ... ] }
+     * Results are returned in request order.
+     */
+    @PostMapping("/check/batch")
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, Object>>>> checkSafetyBatch(
+            @RequestBody SafetyCheckBatchRequest request) {
+        List<SafetyCheckPoint> points = request != null ? request.getPoints() : null;
+        if (points == null || points.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                    ApiResponse.error("INVALID_REQUEST", "points must contain at least one entry")));
+        }
+        if (points.size() > maxBatchPoints) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                    ApiResponse.error("TOO_MANY_POINTS", "A batch may contain at most " + maxBatchPoints + " points")));
+        }
+
+        int n = points.size();
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        int[] hours = new int[n];
+        for (int i = 0; i < n; i++) {
+            SafetyCheckPoint point = points.get(i);
+            if (point == null || point.getLat() == null || point.getLon() == null) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                        ApiResponse.error("INVALID_COORDINATES", "points[" + i + "] requires lat and lon")));
+            }
+            lats[i] = point.getLat();
+            lons[i] = point.getLon();
+            hours[i] = normalizeHour(point.getHour());
+        }
+
+        return batchLimit.run(() -> aiSafetyService.getRealTimeSafetyScoresAsync(lats, lons, hours)
+                .thenApply(dangerScores -> {
+                    List<Map<String, Object>> results = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("lat", lats[i]);
+                        result.put("lon", lons[i]);
+                        result.putAll(buildResult(dangerScores[i], riskZoneIndex.isInAnyZone(lats[i], lons[i]), hours[i]));
+                        results.add(result);
+                    }
+
+                    Map<String, Object> response = new LinkedHashMap<>();
+                    response.put("count", n);
+                    response.put("results", results);
+                    return ResponseEntity.ok(ApiResponse.ok(response));
+                }));
+    }
 
-        String riskLabel = deriveRiskLabel(dangerScore);
-        String recommendation = deriveRecommendation(dangerScore);
+    /**
+     * POST /api/v1/safety/route  { "polyline": [ { "lat": .., "lon": .. }, ... ], "hour": 21, "spacingMeters": 250 }
+     */
+    @PostMapping("/route")
+    public CompletableFuture<ResponseEntity<ApiResponse<RouteSafetyResponse>>> checkRouteSafety(
+            @RequestBody RouteSafetyRequest request) {
+        if (request == null) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(ApiResponse.error("INVALID_REQUEST", "Request body is required")));
+        }
+        try {
+            return routeLimit.run(() -> routeSafetyService.scoreRouteAsync(request, normalizeHour(request.getHour()))
+                    .thenApply(route -> ResponseEntity.ok(ApiResponse.ok(route))));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(ApiResponse.error("INVALID_ROUTE", e.getMessage())));
+        }
+    }
 
+    private Map<String, Object> buildResult(double dangerScore, boolean isNearAdminZone, int hour) {
         Map<String, Object> response = new LinkedHashMap<>();
         response.put("dangerScore", dangerScore);
         response.put("isNearAdminZone", isNearAdminZone);
-        response.put("riskLabel", riskLabel);
-        response.put("recommendation", recommendation);
-        response.put("hour", resolvedHour);
-
-        return ResponseEntity.ok(ApiResponse.ok(response));
+        response.put("riskLabel", deriveRiskLabel(dangerScore));
+        response.put("recommendation", deriveRecommendation(dangerScore));
+        response.put("hour", hour);
+        return response;
     }
 
     private int normalizeHour(Integer hour) {
@@ -72,21 +182,6 @@ public class SafetyController {
         return mod < 0 ? mod + 24 : mod;
     }
 
-    private boolean isNearAdminRiskZone(double latitude, double longitude) {
-        List<RiskZone> zones = riskZoneService.listActiveRiskZones();
-        if (zones.isEmpty()) {
-            return false;
-        }
-
-        return zones.stream().anyMatch(zone -> GeoFenceUtil.isPointWithinRadius(
-                latitude,
-                longitude,
-                zone.getCenterLat(),
-                zone.getCenterLng(),
-                zone.getRadiusMeters()
-        ));
-    }
-
     private String deriveRiskLabel(double dangerScore) {
         if (dangerScore > 0.7) {
             return "High Danger";
@@ -106,4 +201,45 @@ public class SafetyController {
         }
         return "Low risk detected. Continue with normal precautions.";
     }
+
+    /**
+     * Per-endpoint bulkhead and deadline: over the limit answers 503 immediately, past the deadline 504.
+     */
+    private static final class EndpointLimit {
+        private final Semaphore permits;
+        private final long timeoutMs;
+
+        private EndpointLimit(int maxConcurrent, long timeoutMs) {
+            this.permits = new Semaphore(maxConcurrent);
+            this.timeoutMs = timeoutMs;
+        }
+
+        private <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> run(
+                Supplier<CompletableFuture<ResponseEntity<ApiResponse<T>>>> call) {
+            if (!permits.tryAcquire()) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(ApiResponse.error("BUSY", "Safety service is at capacity, retry shortly")));
+            }
+            CompletableFuture<ResponseEntity<ApiResponse<T>>> future;
+            try {
+                future = call.get();
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            return future
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .whenComplete((response, error) -> permits.release())
+                    .exceptionally(error -> {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        if (cause instanceof TimeoutException) {
+                            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                                    .body(ApiResponse.error("TIMEOUT", "Safety check did not complete in time"));
+                        }
+                        throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                    });
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.safarsathi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HeatMapCell {
+    private String cell;
+    private double lat;
+    private double lng;
+    private long tourists;
+    private long alerts;
+    private long sosAlerts;
+    private Double avgSafetyScore;
+}
@@ -0,0 +1,20 @@
+package com.safarsathi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatMapResponse {
+    private int zoom;
+    private double cellSizeDeg;
+    private long totalTourists;
+    private long totalAlerts;
+    private List<HeatMapCell> cells;
+}
@@ -0,0 +1,30 @@
+package com.safarsathi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IdCredentialCheck {
+    private boolean valid;
+    /** VALID, MALFORMED, BAD_SIGNATURE, WRONG_TYPE, EXPIRED or REVOKED. */
+    private String status;
+    private String credentialId;
+    private String touristId;
+    private String name;
+
+    @JsonProperty("passport_partial")
+    private String passportPartial;
+
+    private String nationality;
+
+    @JsonProperty("id_expiry")
+    private String idExpiry;
+}
@@ -0,0 +1,16 @@
+package com.safarsathi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdCredentialVerifyRequest {
+    private List<String> tokens;
+}
@@ -0,0 +1,25 @@
+package com.safarsathi.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdVerificationResult {
+    private boolean valid;
+    private String name;
+
+    @JsonProperty("passport_partial")
+    private String passportPartial;
+
+    @JsonProperty("id_expiry")
+    private String idExpiry;
+
+    @JsonProperty("blockchain_status")
+    private String blockchainStatus;
+}
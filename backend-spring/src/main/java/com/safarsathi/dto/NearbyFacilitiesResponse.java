@@ -0,0 +1,23 @@
+package com.safarsathi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Nearest facilities to a geohash cell; distances are measured from the cell center.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyFacilitiesResponse {
+    private String cell;
+    private double lat;
+    private double lng;
+    private int k;
+    private List<NearbyFacility> results;
+}
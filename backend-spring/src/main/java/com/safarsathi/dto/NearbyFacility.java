@@ -0,0 +1,26 @@
+package com.safarsathi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NearbyFacility {
+    private String id;
+    private String name;
+    private String type;
+    private Double latitude;
+    private Double longitude;
+    private double distanceMeters;
+    private String contact;
+    private Boolean emergency;
+    private String city;
+    private String district;
+    private String state;
+}
@@ -0,0 +1,22 @@
+package com.safarsathi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteSafetyRequest {
+    /** Route vertices in travel order (per-point hour is ignored) */
+    private List<SafetyCheckPoint> polyline;
+    /** Departure hour (0-23); defaults to the current hour */
+    private Integer hour;
+    private Double spacingMeters;
+    /** Optional travel speed; when set, later segments are scored at their estimated arrival hour */
+    private Double speedKmh;
+}
@@ -0,0 +1,48 @@
+package com.safarsathi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteSafetyResponse {
+    private double totalDistanceMeters;
+    private double spacingMeters;
+    private int departureHour;
+    private double maxDangerScore;
+    private double avgDangerScore;
+    private List<Segment> segments;
+    private List<ZoneCrossing> zones;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Segment {
+        private int index;
+        private double startMeters;
+        private double endMeters;
+        private double lat;
+        private double lon;
+        private int hour;
+        private double dangerScore;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ZoneCrossing {
+        private Integer zoneId;
+        private String name;
+        private String riskLevel;
+        private double entryMeters;
+        private double exitMeters;
+    }
+}
@@ -0,0 +1,16 @@
+package com.safarsathi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SafetyCheckPoint {
+    private Double lat;
+    private Double lon;
+    private Integer hour;
+}
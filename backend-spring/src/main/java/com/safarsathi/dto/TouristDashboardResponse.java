@@ -44,6 +44,8 @@ public class TouristDashboardResponse {
         private List<String> medicalConditions;
         private Double safetyScore;
         private String idHash;
+        private String idCredential;
+        private String idStatus;
     }
 
     @Data
@@ -0,0 +1,29 @@
+package com.safarsathi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Server-side filters for the admin tourist directory. Every field is optional.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TouristDirectoryQuery {
+    private String status;
+    private Double minScore;
+    private Double maxScore;
+    private Integer seenWithinMinutes;
+    private Integer inactiveForMinutes;
+    private Double minLat;
+    private Double maxLat;
+    private Double minLng;
+    private Double maxLng;
+    private String nationality;
+    private String travelType;
+    private String cursor;
+    private Integer limit;
+}
@@ -32,7 +32,9 @@ public class TouristResponse {
     private Double currentLng;
     private String lastSeen;
     private String idHash;
+    private String idCredential;
     private String idExpiry;
+    private String idStatus;
     private Double safetyScore;
     private String travelType;
     private String preferredLanguage;
@@ -6,6 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,6 +21,10 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "alerts")
+@CompoundIndexes({
+        @CompoundIndex(def = "{'status': 1, 'alertType': 1, 'touristId': 1}"),
+        @CompoundIndex(def = "{'latitude': 1, 'longitude': 1}")
+})
 public class Alert {
 
     private String id;
@@ -28,6 +37,10 @@ public class Alert {
 
     private String alertType;
 
+    /** Set on system-raised alerts so each occurrence is inserted once, even across nodes. */
+    @Indexed(unique = true, sparse = true)
+    private String dedupKey;
+
     @Builder.Default
     private String priority = "MEDIUM";
 
@@ -38,6 +51,10 @@ public class Alert {
     private Double latitude;
     private Double longitude;
 
+    /** GeoJSON mirror of latitude/longitude for jurisdiction ($geoWithin) queries. */
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
     @CreatedDate
     private Instant createdAt;
 
@@ -5,16 +5,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "blockchainlogs")
+@CompoundIndex(name = "status_logId", def = "{'status': 1, 'logId': 1}")
 public class BlockchainLog {
 
     private String id;
@@ -30,8 +33,20 @@ public class BlockchainLog {
     @Builder.Default
     private String status = "PENDING";
 
+    /** One issuance record per ID; also fences ledger queue workers (see BlockchainService). */
+    @Indexed(unique = true, sparse = true)
     private String dataHash;
 
+    /** Merkle leaf hash (hex) of this issuance; transactionId is derived from it. */
+    private String leafHash;
+
+    /** Set once the issuance is committed to a ledger block. */
+    private Long blockHeight;
+    private Integer leafIndex;
+
+    /** Inclusion proof, encoded MerkleTree.ProofStep values from leaf to root. */
+    private List<String> proof;
+
     @CreatedDate
     private Instant createdAt;
 }
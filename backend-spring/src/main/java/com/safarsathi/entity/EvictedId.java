@@ -0,0 +1,32 @@
+package com.safarsathi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * An ID hash whose cached verification results must be dropped on every node (account deleted).
+ * Entries are removed by the TTL index once no node can still hold a result cached before it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "evicted_ids")
+public class EvictedId {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private Instant evictedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
@@ -0,0 +1,41 @@
+package com.safarsathi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One block of the append-only ID ledger: the Merkle root over a batch of issuances, chained to
+ * the previous block by hash. The unique height index is what keeps the chain linear.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ledger_blocks")
+public class LedgerBlock {
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private Long height;
+
+    private String prevHash;
+    private String merkleRoot;
+    private String blockHash;
+    private Integer size;
+
+    /** Ledger log ids in leaf order, and their leaf hashes, so proofs can be regenerated. */
+    private List<Integer> logIds;
+    private List<String> leafHashes;
+
+    private Instant createdAt;
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -17,7 +18,11 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "notifications")
-@CompoundIndex(def = "{'touristId': 1, 'createdAt': -1}")
+@CompoundIndexes({
+        @CompoundIndex(def = "{'touristId': 1, 'createdAt': -1}"),
+        // Mark-all-read and unread counts
+        @CompoundIndex(name = "touristId_read", def = "{'touristId': 1, 'read': 1}")
+})
 public class Notification {
 
     private String id;
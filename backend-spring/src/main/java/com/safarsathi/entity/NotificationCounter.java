@@ -0,0 +1,33 @@
+package com.safarsathi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Unread notification count per tourist (id = touristId), kept in step with every write that
+ * creates or reads notifications so the badge is a single primary-key read. Every adjustment
+ * bumps the revision, so a recount only replaces the value if nothing moved it meanwhile.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    private String id;
+
+    private long unread;
+
+    private long revision;
+
+    /** Last recount from the notifications themselves; null for a counter created by an adjustment. */
+    @Indexed
+    private Instant reconciledAt;
+}
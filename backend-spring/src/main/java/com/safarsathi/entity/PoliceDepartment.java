@@ -7,7 +7,10 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -36,11 +39,27 @@ public class PoliceDepartment {
 
     private Double latitude;
     private Double longitude;
+
+    /** GeoJSON mirror of latitude/longitude for jurisdiction ($geoWithin) queries. */
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
     private String city;
+
+    @Indexed
     private String district;
+
     private String state;
     private String contactNumber;
 
+    /**
+     * STATE (sees everything), DISTRICT (union of the district's stations) or RADIUS (own area).
+     * Null falls back to STATE for control centres and RADIUS otherwise.
+     */
+    private String jurisdictionScope;
+
+    private Double jurisdictionRadiusKm;
+
     @Builder.Default
     private Boolean isActive = true;
 
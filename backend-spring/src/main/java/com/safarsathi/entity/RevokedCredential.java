@@ -0,0 +1,37 @@
+package com.safarsathi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A revoked offline ID credential, by credential id. version increases with every revocation so
+ * checkpoint devices can pull only what changed; entries expire with the credential they cover.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_credentials")
+public class RevokedCredential {
+
+    @Id
+    private String id;
+
+    private String touristId;
+    private String reason;
+
+    @Indexed(unique = true)
+    private Long version;
+
+    private Instant revokedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
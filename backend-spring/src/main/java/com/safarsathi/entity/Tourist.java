@@ -7,7 +7,11 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -19,7 +23,13 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "tourists")
-@CompoundIndex(def = "{'currentLat': 1, 'currentLng': 1}")
+@CompoundIndexes({
+        @CompoundIndex(def = "{'currentLat': 1, 'currentLng': 1}"),
+        // Directory keyset ordering: most recently seen first, id as tie-breaker
+        @CompoundIndex(name = "directory_lastSeen_id", def = "{'lastSeen': -1, '_id': 1}"),
+        // Ledger issuance queue: oldest queued (or lapsed claim) first
+        @CompoundIndex(name = "ledger_queue", def = "{'idStatus': 1, 'idQueuedAt': 1}")
+})
 public class Tourist {
 
     @Id
@@ -35,21 +45,45 @@ public class Tourist {
     private String dateOfBirth;
     private String address;
     private String gender;
+
+    @Indexed
     private String nationality;
+
     private EmergencyContact emergencyContact;
     private String bloodType;
     private List<String> allergies;
     private List<String> medicalConditions;
     private String passwordHash;
+
+    @Indexed
     private String idHash;
+
     private String idExpiry;
+
+    /** Ledger state of idHash: QUEUED, ISSUING, PENDING or ANCHORED (see BlockchainService). */
+    private String idStatus;
+
+    /** When the ID was queued for the ledger, or when a worker claimed it. */
+    private Instant idQueuedAt;
+
+    /** Ed25519-signed credential for offline checkpoint verification (see IdCredentialService). */
+    private String idCredential;
+
     private String resetTokenHash;
     private Instant resetTokenExpires;
     private List<WebauthnCredential> webauthnCredentials;
     private Double currentLat;
     private Double currentLng;
-    private String lastSeen;
+
+    /** GeoJSON mirror of currentLat/currentLng for jurisdiction ($geoWithin) queries. */
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
+    private Instant lastSeen;
+
+    @Indexed
     private String travelType;
+
     private String preferredLanguage;
     private String visaType;
     private String visaExpiry;
@@ -57,9 +91,19 @@ public class Tourist {
     @Builder.Default
     private Boolean isActive = true;
 
+    /** Open-alert summary for directory filters: SOS, OPEN or null (see AlertService). */
+    @Indexed
+    private String alertState;
+
+    @Indexed
     @Builder.Default
     private Double safetyScore = 100.0;
 
+    /** Components behind safetyScore (see SafetyScoreEngine), so a reloaded score is not re-penalized. */
+    private Double safetyZonePenalty;
+    private Instant safetyZonePenaltyAt;
+    private Double safetyDangerPenalty;
+
     @CreatedDate
     private Instant createdAt;
 
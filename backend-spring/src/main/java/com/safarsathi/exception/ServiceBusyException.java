@@ -0,0 +1,18 @@
+package com.safarsathi.exception;
+
+/**
+ * A bounded resource is saturated; mapped to 503 with a Retry-After hint.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
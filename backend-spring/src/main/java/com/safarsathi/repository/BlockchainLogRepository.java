@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BlockchainLogRepository extends MongoRepository<BlockchainLog, String> {
@@ -14,5 +15,7 @@ public interface BlockchainLogRepository extends MongoRepository<BlockchainLog,
 
     BlockchainLog findByDataHashAndStatus(String dataHash, String status);
 
+    Optional<BlockchainLog> findFirstByDataHashOrderByLogIdDesc(String dataHash);
+
     void deleteByTouristId(String touristId);
 }
@@ -0,0 +1,15 @@
+package com.safarsathi.repository;
+
+import com.safarsathi.entity.LedgerBlock;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LedgerBlockRepository extends MongoRepository<LedgerBlock, String> {
+
+    Optional<LedgerBlock> findTopByOrderByHeightDesc();
+
+    Optional<LedgerBlock> findByHeight(Long height);
+}
@@ -17,5 +17,7 @@ public interface NotificationRepository extends MongoRepository<Notification, St
 
     List<Notification> findByTouristIdAndReadFalse(String touristId);
 
+    long countByTouristIdAndReadFalse(String touristId);
+
     void deleteByTouristId(String touristId);
 }
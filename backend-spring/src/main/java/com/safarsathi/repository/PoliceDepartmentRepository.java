@@ -4,6 +4,7 @@ import com.safarsathi.entity.PoliceDepartment;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +13,6 @@ public interface PoliceDepartmentRepository extends MongoRepository<PoliceDepart
     Optional<PoliceDepartment> findByEmail(String email);
 
     Optional<PoliceDepartment> findByDepartmentCode(String departmentCode);
+
+    List<PoliceDepartment> findByDistrictAndIsActiveTrue(String district);
 }
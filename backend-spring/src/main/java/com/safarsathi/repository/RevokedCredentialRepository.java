@@ -0,0 +1,13 @@
+package com.safarsathi.repository;
+
+import com.safarsathi.entity.RevokedCredential;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RevokedCredentialRepository extends MongoRepository<RevokedCredential, String> {
+
+    List<RevokedCredential> findByVersionGreaterThanOrderByVersionAsc(Long version);
+}
@@ -0,0 +1,16 @@
+package com.safarsathi.repository;
+
+import com.safarsathi.entity.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByRevokedAtAfter(Instant revokedAt);
+
+    List<RevokedToken> findByExpiresAtAfter(Instant expiresAt);
+}
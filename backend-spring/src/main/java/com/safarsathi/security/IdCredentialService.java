@@ -0,0 +1,254 @@
+package com.safarsathi.security;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safarsathi.dto.IdCredentialCheck;
+import com.safarsathi.entity.RevokedCredential;
+import com.safarsathi.entity.Tourist;
+import com.safarsathi.repository.RevokedCredentialRepository;
+import com.safarsathi.service.SequenceService;
+import com.safarsathi.util.Ed25519Tokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline-verifiable digital ID credentials. Each credential is an Ed25519-signed token over the
+ * tourist's ID fields and expiry, so a checkpoint device holding the public key verifies it with
+ * no I/O. Revocations get an increasing version; devices pull the signed list of revocations
+ * after the version they last saw whenever they are online.
+ */
+@Service
+public class IdCredentialService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdCredentialService.class);
+    private static final int FORMAT_VERSION = 1;
+    /** Payload types; both are signed with the same key, so each verifier checks the type. */
+    static final String CREDENTIAL_TYPE = "safarsathi-id";
+    static final String REVOCATION_LIST_TYPE = "safarsathi-id-revocations";
+    private static final String VERSION_SEQUENCE = "credentialRevocationVersion";
+    /**
+     * Versions are allocated before the revocation is written, so a lower version can become
+     * visible after a higher one; readers re-read this many versions below their cursor.
+     */
+    private static final long SYNC_OVERLAP = 64;
+
+    private final RevokedCredentialRepository revokedCredentialRepository;
+    private final SequenceService sequenceService;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final KeyPair keyPair;
+    private final String keyId;
+    private final int maxBatch;
+    /** Revoked credential id -> credential expiry, mirrored from revoked_credentials. */
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile long revocationVersion;
+
+    public IdCredentialService(RevokedCredentialRepository revokedCredentialRepository,
+                               SequenceService sequenceService,
+                               @Value("${app.id-credential.private-key:}") String privateKey,
+                               @Value("${app.id-credential.public-key:}") String publicKey,
+                               @Value("${app.id-credential.max-batch:500}") int maxBatch) {
+        this.revokedCredentialRepository = revokedCredentialRepository;
+        this.sequenceService = sequenceService;
+        if (privateKey.isBlank() || publicKey.isBlank()) {
+            logger.warn("No ID credential signing key configured; using an ephemeral key. Credentials will not "
+                    + "verify after a restart or on other nodes.");
+            this.keyPair = Ed25519Tokens.generateKeyPair();
+        } else {
+            this.keyPair = Ed25519Tokens.decodeKeyPair(privateKey, publicKey);
+        }
+        this.keyId = Ed25519Tokens.keyId(keyPair.getPublic());
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Signed credential fields. Names are kept short because the token is rendered as a QR code.
+     */
+    record Claims(int v, String typ, String kid, String jti, String sub, String h, String n, String p, String nat,
+                  long iat, long exp) {
+    }
+
+    /**
+     * Issue a credential for the tourist's current digital ID.
+     */
+    public String issue(Tourist tourist) {
+        Instant now = Instant.now();
+        Claims claims = new Claims(FORMAT_VERSION, CREDENTIAL_TYPE, keyId, UUID.randomUUID().toString(), tourist.getId(),
+                tourist.getIdHash(), tourist.getName(), passportPartial(tourist.getPassportNumber()),
+                tourist.getNationality(), now.getEpochSecond(), expiry(tourist.getIdExpiry(), now).getEpochSecond());
+        try {
+            return Ed25519Tokens.sign(keyPair.getPrivate(), objectMapper.writeValueAsBytes(claims));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode ID credential", e);
+        }
+    }
+
+    /**
+     * Verify scanned credentials against the signing key and the in-memory revocation list.
+     */
+    public List<IdCredentialCheck> verifyAll(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            throw new IllegalArgumentException("tokens are required");
+        }
+        if (tokens.size() > maxBatch) {
+            throw new IllegalArgumentException("At most " + maxBatch + " tokens per request");
+        }
+        long now = Instant.now().getEpochSecond();
+        return tokens.stream().map(token -> verify(token, now)).toList();
+    }
+
+    /**
+     * Revoke a credential (account deletion or re-issue). No-op for tokens this node cannot read.
+     */
+    public void revoke(String token, String reason) {
+        Claims claims = readUnverified(token).orElse(null);
+        if (claims == null || !CREDENTIAL_TYPE.equals(claims.typ()) || claims.jti() == null
+                || revoked.containsKey(claims.jti())) return;
+        RevokedCredential entry = RevokedCredential.builder()
+                .id(claims.jti())
+                .touristId(claims.sub())
+                .reason(reason)
+                .version(sequenceService.getNextId(VERSION_SEQUENCE))
+                .revokedAt(Instant.now())
+                .expiresAt(Instant.ofEpochSecond(claims.exp()))
+                .build();
+        revokedCredentialRepository.save(entry);
+        revoked.put(entry.getId(), entry.getExpiresAt());
+    }
+
+    /**
+     * Public key for checkpoint devices.
+     */
+    public Map<String, Object> publicKey() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("keyId", keyId);
+        result.put("algorithm", "Ed25519");
+        result.put("format", "X.509");
+        result.put("publicKey", Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        return result;
+    }
+
+    /**
+     * Revocations after the given version (re-sending an overlap window below it, see
+     * SYNC_OVERLAP), plus the same list as a signed token so a device can trust a copy relayed
+     * over an untrusted channel.
+     */
+    public Map<String, Object> revocationsSince(long since) {
+        List<RevokedCredential> entries = revokedCredentialRepository.findByVersionGreaterThanOrderByVersionAsc(
+                Math.max(0, since - SYNC_OVERLAP));
+        List<String> ids = entries.stream().map(RevokedCredential::getId).toList();
+        long version = entries.isEmpty() ? Math.max(since, revocationVersion)
+                : Math.max(since, entries.get(entries.size() - 1).getVersion());
+        Map<String, Object> list = new LinkedHashMap<>();
+        list.put("typ", REVOCATION_LIST_TYPE);
+        list.put("keyId", keyId);
+        list.put("since", since);
+        list.put("version", version);
+        list.put("revoked", ids);
+        Map<String, Object> result = new LinkedHashMap<>(list);
+        try {
+            result.put("signed", Ed25519Tokens.sign(keyPair.getPrivate(), objectMapper.writeValueAsBytes(list)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode revocation list", e);
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        sync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.id-credential.revocation-sync-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void sync() {
+        try {
+            Instant now = Instant.now();
+            long version = revocationVersion;
+            for (RevokedCredential entry : revokedCredentialRepository.findByVersionGreaterThanOrderByVersionAsc(
+                    Math.max(0, version - SYNC_OVERLAP))) {
+                revoked.put(entry.getId(), entry.getExpiresAt() != null ? entry.getExpiresAt() : Instant.MAX);
+                version = Math.max(version, entry.getVersion());
+            }
+            revocationVersion = version;
+            revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        } catch (RuntimeException e) {
+            logger.warn("Credential revocation sync failed", e);
+        }
+    }
+
+    private IdCredentialCheck verify(String token, long nowSeconds) {
+        Optional<byte[]> payload = Ed25519Tokens.verify(keyPair.getPublic(), token);
+        if (payload.isEmpty()) {
+            return IdCredentialCheck.builder()
+                    .status(readUnverified(token).isPresent() ? "BAD_SIGNATURE" : "MALFORMED")
+                    .build();
+        }
+        Claims claims;
+        try {
+            claims = objectMapper.readValue(payload.get(), Claims.class);
+        } catch (IOException e) {
+            return IdCredentialCheck.builder().status("MALFORMED").build();
+        }
+        if (!CREDENTIAL_TYPE.equals(claims.typ())) {
+            // Validly signed, but another kind of payload (e.g. a revocation list)
+            return IdCredentialCheck.builder().status("WRONG_TYPE").build();
+        }
+        String status = claims.exp() <= nowSeconds ? "EXPIRED"
+                : claims.jti() != null && revoked.containsKey(claims.jti()) ? "REVOKED"
+                : "VALID";
+        return IdCredentialCheck.builder()
+                .valid("VALID".equals(status))
+                .status(status)
+                .credentialId(claims.jti())
+                .touristId(claims.sub())
+                .name(claims.n())
+                .passportPartial(claims.p())
+                .nationality(claims.nat())
+                .idExpiry(Instant.ofEpochSecond(claims.exp()).toString())
+                .build();
+    }
+
+    private Optional<Claims> readUnverified(String token) {
+        if (token == null || token.indexOf('.') <= 0) return Optional.empty();
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.')));
+            return Optional.of(objectMapper.readValue(payload, Claims.class));
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Instant expiry(String idExpiry, Instant now) {
+        if (idExpiry != null) {
+            try {
+                return Instant.parse(idExpiry);
+            } catch (DateTimeParseException ignored) {
+                // fall through to the default validity
+            }
+        }
+        return now.plus(365, ChronoUnit.DAYS);
+    }
+
+    private static String passportPartial(String passportNumber) {
+        return passportNumber != null && passportNumber.length() >= 2 ? passportNumber.substring(0, 2) + "****" : "";
+    }
+}
@@ -33,18 +33,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtService.validateToken(token)) {
-                String subject = jwtService.getSubject(token);
-                String role = jwtService.getRole(token);
-
-                List<SimpleGrantedAuthority> authorities = List.of(
-                        new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())
-                );
+            jwtService.authenticate(token).ifPresent(principal -> {
+                List<SimpleGrantedAuthority> authorities = principal.role() != null
+                        ? List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().toUpperCase()))
+                        : List.of();
 
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(subject, null, authorities);
+                        new UsernamePasswordAuthenticationToken(principal.subject(), null, authorities);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            });
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,10 @@
+package com.safarsathi.security;
+
+import java.time.Instant;
+
+/**
+ * Verified identity carried by a JWT. tokenId (jti) and issuedAt are null for tokens minted
+ * before they were added.
+ */
+public record JwtPrincipal(String subject, String role, String tokenId, Instant issuedAt, Instant expiresAt) {
+}
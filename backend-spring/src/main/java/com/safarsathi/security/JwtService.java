@@ -1,5 +1,9 @@
 package com.safarsathi.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.safarsathi.util.HashUtil;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,20 +11,31 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * JWT token generation and validation service.
+ * Tokens are parsed once with a shared (thread-safe) parser; verified principals are cached by
+ * token digest until the token expires, so repeat requests with the same token skip the HMAC check.
+ * Revocation is checked on every call, cached or not, against TokenRevocationService's in-memory filter.
  */
 @Service
 public class JwtService {
 
     private final SecretKey key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final Cache<String, JwtPrincipal> verifiedCache;
+    private final TokenRevocationService tokenRevocationService;
 
     public JwtService(
+            TokenRevocationService tokenRevocationService,
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms}") long expirationMs) {
+            @Value("${app.jwt.expiration-ms}") long expirationMs,
+            @Value("${app.jwt.cache.max-size:10000}") long cacheMaxSize) {
         // Ensure key is at least 256 bits for HS256
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         if (keyBytes.length < 32) {
@@ -31,6 +46,49 @@ public class JwtService {
             this.key = Keys.hmacShaKeyFor(keyBytes);
         }
         this.expirationMs = expirationMs;
+        this.tokenRevocationService = tokenRevocationService;
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, JwtPrincipal principal, long currentTime) {
+                        return remainingNanos(principal);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return remainingNanos(principal);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verify a token once and return its principal, or empty if it is invalid or expired.
+     */
+    public Optional<JwtPrincipal> authenticate(String token) {
+        if (token == null || token.isEmpty()) return Optional.empty();
+        String digest = HashUtil.sha256(token);
+        JwtPrincipal cached = verifiedCache.getIfPresent(digest);
+        JwtPrincipal principal = cached;
+        if (principal == null || !principal.expiresAt().isAfter(Instant.now())) {
+            try {
+                principal = toPrincipal(parseClaims(token));
+            } catch (JwtException | IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            verifiedCache.put(digest, principal);
+        }
+        if (tokenRevocationService.isRevoked(principal)) {
+            return Optional.empty();
+        }
+        return Optional.of(principal);
     }
 
     /**
@@ -40,6 +98,7 @@ public class JwtService {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .claim("role", role)
                 .issuedAt(now)
@@ -63,22 +122,26 @@ public class JwtService {
     }
 
     /**
-     * Validate the token and return true if valid.
+     * Validate the token and return true if valid and not revoked.
      */
     public boolean validateToken(String token) {
-        try {
-            parseClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return authenticate(token).isPresent();
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Instant expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().toInstant()
+                : Instant.now().plusMillis(expirationMs);
+        Instant issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        return new JwtPrincipal(claims.getSubject(), claims.get("role", String.class), claims.getId(), issuedAt, expiresAt);
+    }
+
+    private static long remainingNanos(JwtPrincipal principal) {
+        long millis = principal.expiresAt().toEpochMilli() - System.currentTimeMillis();
+        return Math.max(0, millis) * 1_000_000L;
     }
 }
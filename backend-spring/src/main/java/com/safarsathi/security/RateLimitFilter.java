@@ -0,0 +1,256 @@
+package com.safarsathi.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safarsathi.util.TokenBucketLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Token-bucket rate limits for location ingest, sign-in and safety checks, applied per client IP
+ * and, for authenticated calls, per principal. Runs ahead of JwtAuthenticationFilter; the
+ * principal comes from the verified-token cache. Sign-in calls are unauthenticated, so their
+ * narrow limit is per IP and account (the email or reset token in the body), with a wide per-IP
+ * backstop, so a tour group behind one NAT address is not throttled as one client. SOS is never
+ * limited.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String SOS_PATTERN = "/api/action/sos/**";
+    /** Larger sign-in bodies are not buffered; they fall back to the IP-only account key. */
+    private static final int MAX_ACCOUNT_BODY_BYTES = 16 * 1024;
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final int trustedProxyHops;
+    private final List<Rule> rules;
+    private final TokenBucketLimiter limiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RateLimitFilter(JwtService jwtService,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.trusted-proxy-hops:0}") int trustedProxyHops,
+                           @Value("${app.rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${app.rate-limit.location.capacity:20}") double locationCapacity,
+                           @Value("${app.rate-limit.location.refill-per-minute:60}") double locationRefill,
+                           @Value("${app.rate-limit.location.ip-capacity:200}") double locationIpCapacity,
+                           @Value("${app.rate-limit.location.ip-refill-per-minute:600}") double locationIpRefill,
+                           @Value("${app.rate-limit.login.capacity:10}") double loginCapacity,
+                           @Value("${app.rate-limit.login.refill-per-minute:10}") double loginRefill,
+                           @Value("${app.rate-limit.login.ip-capacity:300}") double loginIpCapacity,
+                           @Value("${app.rate-limit.login.ip-refill-per-minute:300}") double loginIpRefill,
+                           @Value("${app.rate-limit.safety.capacity:60}") double safetyCapacity,
+                           @Value("${app.rate-limit.safety.refill-per-minute:120}") double safetyRefill,
+                           @Value("${app.rate-limit.safety.ip-capacity:120}") double safetyIpCapacity,
+                           @Value("${app.rate-limit.safety.ip-refill-per-minute:240}") double safetyIpRefill) {
+        this.jwtService = jwtService;
+        this.enabled = enabled;
+        this.trustedProxyHops = Math.max(0, trustedProxyHops);
+        this.limiter = new TokenBucketLimiter(64, Math.max(1, maxKeys / 64));
+        this.rules = List.of(
+                new Rule("location", HttpMethod.POST, List.of("/api/action/location/**"), false,
+                        locationCapacity, locationRefill, locationIpCapacity, locationIpRefill),
+                new Rule("login", HttpMethod.POST,
+                        List.of("/api/auth/login", "/api/admin/login", "/api/auth/register", "/api/auth/password-reset/**"),
+                        true, loginCapacity, loginRefill, loginIpCapacity, loginIpRefill),
+                new Rule("safety", null, List.of("/api/v1/safety/**"), false,
+                        safetyCapacity, safetyRefill, safetyIpCapacity, safetyIpRefill));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || HttpMethod.OPTIONS.matches(request.getMethod())) return true;
+        return pathMatcher.match(SOS_PATTERN, request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Rule rule = matchRule(request);
+        if (rule != null) {
+            String ip = clientIp(request);
+            String ipKey = rule.name + "|ip:" + ip;
+            boolean ipTokenTaken = false;
+            long waitMs = 0;
+            if (rule.ipCapacity > 0) {
+                waitMs = limiter.tryAcquire(ipKey, rule.ipCapacity, rule.ipRefillPerMinute / 60.0);
+                ipTokenTaken = waitMs == 0;
+            }
+            if (waitMs == 0 && rule.capacity > 0) {
+                Optional<String> subject;
+                if (rule.accountInBody) {
+                    CachedBodyRequest cached = CachedBodyRequest.wrap(request);
+                    if (cached != null) request = cached;
+                    subject = Optional.of("acct:" + ip + "/" + account(cached).orElse(""));
+                } else {
+                    subject = principal(request).map(sub -> "sub:" + sub);
+                }
+                if (subject.isPresent()) {
+                    waitMs = limiter.tryAcquire(rule.name + "|" + subject.get(), rule.capacity, rule.refillPerMinute / 60.0);
+                }
+                // A request the account limit turns away should not use up the address's allowance
+                if (waitMs > 0 && ipTokenTaken) limiter.release(ipKey);
+            }
+            if (waitMs > 0) {
+                response.setStatus(429);
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+                response.setContentType("application/json");
+                objectMapper.writeValue(response.getOutputStream(),
+                        Map.of("success", false, "message", "Too many requests, please slow down"));
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-ms:60000}")
+    public void evictIdle() {
+        limiter.evictIdle();
+    }
+
+    private Rule matchRule(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (Rule rule : rules) {
+            if (rule.method != null && !rule.method.matches(request.getMethod())) continue;
+            for (String pattern : rule.patterns) {
+                if (pathMatcher.match(pattern, path)) return rule;
+            }
+        }
+        return null;
+    }
+
+    private Optional<String> principal(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) return Optional.empty();
+        return jwtService.authenticate(authHeader.substring(7)).map(JwtPrincipal::subject);
+    }
+
+    /**
+     * The account a sign-in call is for: the email, or the reset token for a reset confirmation.
+     */
+    private Optional<String> account(CachedBodyRequest request) {
+        if (request == null) return Optional.empty();
+        try {
+            JsonNode body = objectMapper.readTree(request.body);
+            if (body == null) return Optional.empty();
+            JsonNode account = body.hasNonNull("email") ? body.get("email") : body.get("token");
+            if (account == null || !account.isTextual() || account.asText().isBlank()) return Optional.empty();
+            return Optional.of(account.asText().trim().toLowerCase(Locale.ROOT));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The remote address, or, behind trustedProxyHops proxies that append to X-Forwarded-For,
+     * the entry that many hops from the end (earlier entries are client-controlled).
+     */
+    private String clientIp(HttpServletRequest request) {
+        if (trustedProxyHops > 0) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                String[] hops = forwarded.split(",");
+                int index = Math.max(0, hops.length - trustedProxyHops);
+                return hops[index].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private record Rule(String name, HttpMethod method, List<String> patterns, boolean accountInBody,
+                        double capacity, double refillPerMinute, double ipCapacity, double ipRefillPerMinute) {
+    }
+
+    /**
+     * A request whose (small) body has been read so the limiter can inspect it and the controller
+     * can still bind it.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        static CachedBodyRequest wrap(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length < 0 || length > MAX_ACCOUNT_BODY_BYTES) return null;
+            return new CachedBodyRequest(request, request.getInputStream().readAllBytes());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The body is already in memory, so all of it is available at once
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
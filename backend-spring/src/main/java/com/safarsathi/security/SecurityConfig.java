@@ -28,6 +28,7 @@ import java.util.Map;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     /**
      * Vercel production URL, e.g. https://safarsathi.vercel.app
@@ -37,9 +38,13 @@ public class SecurityConfig {
     @Value("${FRONTEND_URL:}")
     private String frontendUrl;
 
+    /**
+     * Request paths hash through PasswordHashingService, which bounds concurrency and rehashes
+     * on login when this cost changes.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int bcryptStrength) {
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -75,19 +80,23 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/password-reset/**").permitAll()
                         .requestMatchers("/api/health").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/safety/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/safety/check/batch", "/api/v1/safety/route").permitAll()
                         .requestMatchers("/api/risk-zones/active").permitAll()
-                        .requestMatchers("/api/police-stations").permitAll()
-                        .requestMatchers("/api/hospitals").permitAll()
+                        .requestMatchers("/api/police-stations", "/api/police-stations/nearest").permitAll()
+                        .requestMatchers("/api/hospitals", "/api/hospitals/nearest").permitAll()
                         .requestMatchers("/api/admin/login").permitAll()
-                        .requestMatchers("/api/admin/id/verify").permitAll()
+                        .requestMatchers("/api/admin/id/verify", "/api/admin/id/proof", "/api/admin/id/credentials/**").permitAll()
                         .requestMatchers("/ws-connect/**").permitAll()
 
                         // Admin-only endpoints
                         .requestMatchers("/api/admin/dashboard/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/alerts/**").hasRole("ADMIN")
-                        .requestMatchers("/api/admin/tourists").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/tourists", "/api/admin/tourists/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/police/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/heatmap").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/ai/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/risk-zones/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/health").hasRole("ADMIN")
 
                         // Authenticated endpoints (tourist or admin)
                         .requestMatchers("/api/auth/profile/**").authenticated()
@@ -97,7 +106,8 @@ public class SecurityConfig {
                         // Everything else requires authentication
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
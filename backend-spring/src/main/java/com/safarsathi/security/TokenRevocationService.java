@@ -0,0 +1,175 @@
+package com.safarsathi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safarsathi.entity.RevokedToken;
+import com.safarsathi.repository.RevokedTokenRepository;
+import com.safarsathi.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JWT revocation without a per-request lookup. Revoked token ids (and per-subject cutoffs) are
+ * kept in an in-memory Bloom filter; only a filter hit is confirmed against the revoked_tokens
+ * collection, so the common "not revoked" case is a few bit reads. Each node pulls new
+ * revocations periodically and rebuilds the filter from scratch to shed expired entries.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final String TOKEN_PREFIX = "jti:";
+    private static final String SUBJECT_PREFIX = "sub:";
+    /** Re-read a little before the last sync to cover clock skew between nodes. */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration tokenLifetime;
+    private final Duration rebuildInterval;
+    private final Cache<String, Optional<Instant>> confirmations;
+    private final AtomicLong inserted = new AtomicLong();
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+    private volatile Instant lastRebuild = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${app.jwt.revocation.expected-entries:100000}") long expectedRevocations,
+                                  @Value("${app.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${app.jwt.revocation.sync-seconds:10}") long syncSeconds,
+                                  @Value("${app.jwt.revocation.rebuild-minutes:60}") long rebuildMinutes,
+                                  @Value("${app.jwt.expiration-ms}") long tokenLifetimeMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.tokenLifetime = Duration.ofMillis(tokenLifetimeMs);
+        this.rebuildInterval = Duration.ofMinutes(rebuildMinutes);
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        // Confirmed results are reused until the next sync could have changed them
+        this.confirmations = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(syncSeconds))
+                .build();
+    }
+
+    /**
+     * Whether the token was revoked individually or by a cutoff for its subject.
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        BloomFilter current = filter;
+        if (principal.tokenId() != null && current.mightContain(TOKEN_PREFIX + principal.tokenId())
+                && confirm(TOKEN_PREFIX + principal.tokenId()).isPresent()) {
+            return true;
+        }
+        if (principal.subject() != null && current.mightContain(SUBJECT_PREFIX + principal.subject())) {
+            Optional<Instant> cutoff = confirm(SUBJECT_PREFIX + principal.subject());
+            // iat has second precision; tokens issued in the revocation second stay valid
+            return cutoff.isPresent()
+                    && (principal.issuedAt() == null || principal.issuedAt().isBefore(cutoff.get().truncatedTo(ChronoUnit.SECONDS)));
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single token (logout). Tokens without an id fall back to revoking the subject.
+     */
+    public void revoke(JwtPrincipal principal, String reason) {
+        if (principal.tokenId() == null) {
+            revokeAll(principal.subject(), reason);
+            return;
+        }
+        store(RevokedToken.builder()
+                .id(TOKEN_PREFIX + principal.tokenId())
+                .subject(principal.subject())
+                .reason(reason)
+                .revokedAt(Instant.now())
+                .expiresAt(principal.expiresAt())
+                .build());
+    }
+
+    /**
+     * Revoke every token issued to the subject until now (password reset, account deletion).
+     */
+    public void revokeAll(String subject, String reason) {
+        Instant now = Instant.now();
+        store(RevokedToken.builder()
+                .id(SUBJECT_PREFIX + subject)
+                .subject(subject)
+                .reason(reason)
+                .revokedAt(now)
+                .expiresAt(now.plus(tokenLifetime))
+                .build());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Could not load revoked tokens; will retry on the next sync", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    public void sync() {
+        try {
+            Instant since = lastSync;
+            if (since == null || Instant.now().isAfter(lastRebuild.plus(rebuildInterval))
+                    || inserted.get() > expectedRevocations) {
+                rebuild();
+                return;
+            }
+            Instant started = Instant.now();
+            List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfter(since.minus(SYNC_OVERLAP));
+            BloomFilter current = filter;
+            for (RevokedToken token : recent) {
+                current.put(token.getId());
+                confirmations.invalidate(token.getId());
+            }
+            inserted.addAndGet(recent.size());
+            lastSync = started;
+        } catch (RuntimeException e) {
+            logger.warn("Revoked token sync failed", e);
+        }
+    }
+
+    private void rebuild() {
+        Instant started = Instant.now();
+        List<RevokedToken> live = revokedTokenRepository.findByExpiresAtAfter(started);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, live.size() * 2L), falsePositiveRate);
+        live.forEach(token -> rebuilt.put(token.getId()));
+        // Revocations made on this node while loading are re-read by the next incremental sync
+        filter = rebuilt;
+        inserted.set(live.size());
+        confirmations.invalidateAll();
+        lastSync = started;
+        lastRebuild = started;
+    }
+
+    private void store(RevokedToken token) {
+        revokedTokenRepository.save(token);
+        filter.put(token.getId());
+        inserted.incrementAndGet();
+        confirmations.invalidate(token.getId());
+    }
+
+    private Optional<Instant> confirm(String id) {
+        return confirmations.get(id, key -> revokedTokenRepository.findById(key)
+                .filter(token -> token.getExpiresAt() == null || token.getExpiresAt().isAfter(Instant.now()))
+                .map(RevokedToken::getRevokedAt));
+    }
+}
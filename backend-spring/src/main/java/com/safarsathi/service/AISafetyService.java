@@ -1,61 +1,309 @@
 package com.safarsathi.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.safarsathi.util.GeohashUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
 
-import java.net.SocketTimeoutException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
+/**
+ * Danger scores cached per geohash cell and hour. The backend is the embedded model
+ * (app.safety.backend=embedded) or the Python AI sidecar (sidecar), which falls back to the
+ * embedded model when it fails. Failures are cached briefly (negative caching) so a dead
+ * sidecar is not hit on every request.
+ * The cache holds futures, so concurrent misses for the same cell-hour share a single in-flight
+ * load (single flight); each caller waits at most await-timeout-ms before taking the fallback.
+ */
 @Service
-@RequiredArgsConstructor
 public class AISafetyService {
 
     private static final Logger logger = LoggerFactory.getLogger(AISafetyService.class);
+    private static final double DEFAULT_DANGER_SCORE = 0.0;
+    private static final String SIDECAR_BACKEND = "sidecar";
+    private static final int BATCH_PARALLELISM = 8;
+    /** Completes a wait that timed out; the fallback then runs off the timer thread. */
+    private static final CachedScore TIMED_OUT = new CachedScore(DEFAULT_DANGER_SCORE, true);
+    private static final Map<String, CachedScore> BATCH_TIMED_OUT = Map.of();
 
-    @Value("${AI_API_URL:http://localhost:5000}")
-    private String aiApiUrl;
+    private final AISidecarClient sidecarClient;
+    private final EmbeddedDangerModel embeddedModel;
+    private final DangerRasterService dangerRasterService;
+    private final boolean preferSidecar;
+    private final int cellPrecision;
+    private final long awaitTimeoutMs;
+    private final AsyncCache<String, CachedScore> scoreCache;
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder awaitTimeouts = new LongAdder();
 
-    private final RestTemplateBuilder restTemplateBuilder;
+    public AISafetyService(AISidecarClient sidecarClient,
+                           EmbeddedDangerModel embeddedModel,
+                           DangerRasterService dangerRasterService,
+                           @Value("${app.safety.backend:embedded}") String backend,
+                           @Value("${app.safety.cache.precision:7}") int cellPrecision,
+                           @Value("${app.safety.cache.ttl-minutes:60}") long ttlMinutes,
+                           @Value("${app.safety.cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                           @Value("${app.safety.cache.max-size:50000}") long maxSize,
+                           @Value("${app.safety.cache.await-timeout-ms:2000}") long awaitTimeoutMs) {
+        this.sidecarClient = sidecarClient;
+        this.embeddedModel = embeddedModel;
+        this.dangerRasterService = dangerRasterService;
+        this.preferSidecar = SIDECAR_BACKEND.equalsIgnoreCase(backend.trim());
+        this.cellPrecision = cellPrecision;
+        this.awaitTimeoutMs = awaitTimeoutMs;
+        long ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.scoreCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedScore>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedScore value, long currentTime) {
+                        return value.failed ? negativeTtlNanos : ttlNanos;
+                    }
 
+                    @Override
+                    public long expireAfterUpdate(String key, CachedScore value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedScore value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Danger score for a location and hour. With the embedded backend, points inside the precomputed
+     * raster are a single mapped read. Otherwise the backend is queried once per cell-hour at the
+     * cell center; until the entry expires, every point in the cell gets the same score.
+     */
     public double getRealTimeSafetyScore(double lat, double lon, int hour) {
-        try {
-            String url = aiApiUrl + "/predict-safety?lat={lat}&lon={lon}&hour={hour}";
-            RestTemplate restTemplate = restTemplateBuilder
-                    .connectTimeout(Duration.ofMillis(5000))
-                    .readTimeout(Duration.ofMillis(5000))
-                    .build();
-            JsonNode response = restTemplate.getForObject(
-                    url,
-                    JsonNode.class,
-                    lat,
-                    lon,
-                    hour
-            );
-
-            Double dangerScore = extractDangerScore(response);
-            if (dangerScore != null) {
-                return dangerScore;
-            }
+        return getRealTimeSafetyScoreAsync(lat, lon, hour).join();
+    }
+
+    public CompletableFuture<Double> getRealTimeSafetyScoreAsync(double lat, double lon, int hour) {
+        double rasterScore = rasterLookup(lat, lon, hour);
+        if (!Double.isNaN(rasterScore)) {
+            return CompletableFuture.completedFuture(rasterScore);
+        }
+        String cell = GeohashUtil.encode(lat, lon, cellPrecision);
+        boolean[] loadedHere = {false};
+        CompletableFuture<CachedScore> shared = scoreCache.get(cacheKey(cell, hour), (key, executor) -> {
+            loadedHere[0] = true;
+            double[] center = GeohashUtil.center(cell);
+            return computeScore(center[0], center[1], hour);
+        });
+        if (!loadedHere[0] && !shared.isDone()) {
+            coalesced.increment();
+        }
+        return await(shared, lat, lon, hour).thenApply(this::unwrap);
+    }
+
+    /**
+     * Scores for many points at once, aligned with the input arrays. Points are deduped by cell-hour,
+     * cached cells are answered locally and the remaining cells are resolved in one bulk load.
+     */
+    public double[] getRealTimeSafetyScores(double[] lats, double[] lons, int[] hours) {
+        return getRealTimeSafetyScoresAsync(lats, lons, hours).join();
+    }
+
+    public CompletableFuture<double[]> getRealTimeSafetyScoresAsync(double[] lats, double[] lons, int[] hours) {
+        double[] scores = new double[lats.length];
+        String[] keys = new String[lats.length];
+        Set<String> distinct = new LinkedHashSet<>();
+        for (int i = 0; i < lats.length; i++) {
+            scores[i] = rasterLookup(lats[i], lons[i], hours[i]);
+            if (!Double.isNaN(scores[i])) continue;
+            keys[i] = cacheKey(GeohashUtil.encode(lats[i], lons[i], cellPrecision), hours[i]);
+            distinct.add(keys[i]);
+        }
+        if (distinct.isEmpty()) {
+            return CompletableFuture.completedFuture(scores);
+        }
 
-            logger.warn("Python AI API returned an invalid response for lat={}, lon={}, hour={}", lat, lon, hour);
-        } catch (ResourceAccessException ex) {
-            if (ex.getCause() instanceof SocketTimeoutException) {
-                logger.warn("Python AI API timed out (5s). Returning default safety score for lat={}, lon={}, hour={}", lat, lon, hour);
-            } else {
-                logger.warn("Python AI API unreachable. Returning default safety score for lat={}, lon={}, hour={}", lat, lon, hour, ex);
+        return scoreCache.getAll(distinct, (missing, executor) -> computeScores(missing))
+                .thenApply(Function.<Map<String, CachedScore>>identity())
+                .completeOnTimeout(BATCH_TIMED_OUT, awaitTimeoutMs, TimeUnit.MILLISECONDS)
+                .thenCompose(resolved -> resolved != BATCH_TIMED_OUT
+                        ? CompletableFuture.completedFuture(fill(scores, keys, resolved, lats, lons, hours))
+                        : CompletableFuture.supplyAsync(() -> fill(scores, keys, null, lats, lons, hours)));
+    }
+
+    /**
+     * Copy resolved scores into place. After a timeout (resolved is null) cells that did load are
+     * still read from the cache; only the rest take the fallback, once per cell-hour.
+     */
+    private double[] fill(double[] scores, String[] keys, Map<String, CachedScore> resolved,
+                          double[] lats, double[] lons, int[] hours) {
+        Map<String, CachedScore> fallbacks = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) continue;
+            CachedScore cached = resolved != null ? resolved.get(keys[i]) : loaded(keys[i]);
+            if (cached == null) {
+                int point = i;
+                cached = fallbacks.computeIfAbsent(keys[i], key -> timedOut(lats[point], lons[point], hours[point]));
             }
-        } catch (Exception ex) {
-            logger.warn("Python AI API error. Returning default safety score for lat={}, lon={}, hour={}", lat, lon, hour, ex);
+            scores[i] = unwrap(cached);
+        }
+        return scores;
+    }
+
+    private CachedScore loaded(String key) {
+        CompletableFuture<CachedScore> future = scoreCache.getIfPresent(key);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) return null;
+        return future.join();
+    }
+
+    /**
+     * Hit/miss counters for the danger-score cache.
+     */
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = scoreCache.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", scoreCache.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("negativeHits", negativeHits.sum());
+        result.put("coalesced", coalesced.sum());
+        result.put("awaitTimeouts", awaitTimeouts.sum());
+        result.put("evictions", stats.evictionCount());
+        result.put("aiCalls", stats.loadCount());
+        result.put("aiCallAvgMs", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("backend", useEmbedded() ? "embedded" : SIDECAR_BACKEND);
+        result.put("raster", dangerRasterService.getStatus());
+        result.put("sidecar", sidecarClient.getStats());
+        return result;
+    }
+
+    private boolean useEmbedded() {
+        return !preferSidecar && embeddedModel.isReady();
+    }
+
+    private double rasterLookup(double lat, double lon, int hour) {
+        return preferSidecar ? Double.NaN : dangerRasterService.lookup(lat, lon, hour);
+    }
+
+    /**
+     * Wait on a shared load without letting this caller's timeout complete it for everyone else.
+     * The timeout completes with a sentinel on the JDK's single delay thread; the fallback itself
+     * is scored on the async pool so slow scoring never stalls other timeouts.
+     */
+    private CompletableFuture<CachedScore> await(CompletableFuture<CachedScore> shared, double lat, double lon, int hour) {
+        if (shared.isDone()) {
+            return shared;
         }
+        return shared.thenApply(Function.identity())
+                .completeOnTimeout(TIMED_OUT, awaitTimeoutMs, TimeUnit.MILLISECONDS)
+                .thenCompose(cached -> cached != TIMED_OUT
+                        ? CompletableFuture.completedFuture(cached)
+                        : CompletableFuture.supplyAsync(() -> timedOut(lat, lon, hour)));
+    }
+
+    private CachedScore timedOut(double lat, double lon, int hour) {
+        awaitTimeouts.increment();
+        return fallback(lat, lon, hour);
+    }
+
+    private double unwrap(CachedScore cached) {
+        if (cached.failed) {
+            negativeHits.increment();
+        }
+        return cached.score;
+    }
+
+    private CompletableFuture<CachedScore> computeScore(double lat, double lon, int hour) {
+        if (useEmbedded()) {
+            return CompletableFuture.completedFuture(new CachedScore(embeddedModel.score(lat, lon, hour), false));
+        }
+        return fetchSidecarScoreAsync(lat, lon, hour).thenApply(score -> fromSidecar(lat, lon, hour, score));
+    }
 
-        return 0.0;
+    /**
+     * Bulk loader for getAll. The sidecar has no batch endpoint, so missing cells are requested
+     * concurrently in waves of BATCH_PARALLELISM to stay inside the client's bulkhead.
+     */
+    private CompletableFuture<Map<String, CachedScore>> computeScores(Set<? extends String> keys) {
+        List<String> pending = new ArrayList<>(keys);
+        Map<String, CachedScore> result = new ConcurrentHashMap<>();
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        int parallelism = useEmbedded() ? pending.size() : BATCH_PARALLELISM;
+        for (int from = 0; from < pending.size(); from += parallelism) {
+            List<String> wave = pending.subList(from, Math.min(from + parallelism, pending.size()));
+            chain = chain.thenCompose(ignored -> CompletableFuture.allOf(wave.stream()
+                    .map(key -> {
+                        double[] point = keyPoint(key);
+                        return computeScore(point[0], point[1], keyHour(key))
+                                .thenAccept(score -> result.put(key, score));
+                    })
+                    .toArray(CompletableFuture[]::new)));
+        }
+        return chain.thenApply(ignored -> result);
+    }
+
+    private CachedScore fromSidecar(double lat, double lon, int hour, Double score) {
+        if (score != null) {
+            return new CachedScore(score, false);
+        }
+        return fallback(lat, lon, hour);
+    }
+
+    /**
+     * Sidecar down or slow: serve the embedded estimate, but only for the negative TTL.
+     */
+    private CachedScore fallback(double lat, double lon, int hour) {
+        double score = embeddedModel.isReady() ? embeddedModel.score(lat, lon, hour) : DEFAULT_DANGER_SCORE;
+        return new CachedScore(score, true);
+    }
+
+    /**
+     * Query the sidecar directly (uncached); null when it fails, is rejected by the client, or returns no score.
+     */
+    CompletableFuture<Double> fetchSidecarScoreAsync(double lat, double lon, int hour) {
+        return sidecarClient.getJsonAsync(
+                        String.format(Locale.ROOT, "/predict-safety?lat=%.6f&lon=%.6f&hour=%d", lat, lon, hour))
+                .thenApply(response -> {
+                    if (response == null) return null;
+                    Double dangerScore = extractDangerScore(response);
+                    if (dangerScore == null) {
+                        logger.warn("Python AI API returned an invalid response for lat={}, lon={}, hour={}", lat, lon, hour);
+                    }
+                    return dangerScore;
+                });
+    }
+
+    private static String cacheKey(String cell, int hour) {
+        return cell + ":" + hour;
+    }
+
+    private static double[] keyPoint(String key) {
+        return GeohashUtil.center(key.substring(0, key.lastIndexOf(':')));
+    }
+
+    private static int keyHour(String key) {
+        return Integer.parseInt(key.substring(key.lastIndexOf(':') + 1));
     }
 
     private Double extractDangerScore(JsonNode response) {
@@ -83,4 +331,14 @@ public class AISafetyService {
 
         return null;
     }
+
+    private static final class CachedScore {
+        private final double score;
+        private final boolean failed;
+
+        private CachedScore(double score, boolean failed) {
+            this.score = score;
+            this.failed = failed;
+        }
+    }
 }
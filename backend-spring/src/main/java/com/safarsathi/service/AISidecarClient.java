@@ -0,0 +1,185 @@
+package com.safarsathi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safarsathi.util.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared HTTP client for the Python AI sidecar.
+ * One keep-alive connection pool; a semaphore bulkhead caps in-flight HTTP requests (a permit is
+ * held until the request itself completes, not just until the caller stops waiting); a circuit
+ * breaker fails fast while the sidecar is unhealthy; an optional hedge request is sent when the
+ * first has not answered within hedgeDelayMs and a permit is free for it. Every call is bounded
+ * by the latency budget.
+ */
+@Component
+public class AISidecarClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AISidecarClient.class);
+
+    private final String baseUrl;
+    private final Duration budget;
+    private final long hedgeDelayMs;
+    private final int maxConcurrent;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+    private final LongAdder rejectedByBreaker = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public AISidecarClient(ObjectMapper objectMapper,
+                           @Value("${AI_API_URL:http://localhost:5000}") String baseUrl,
+                           @Value("${app.ai.connect-timeout-ms:500}") long connectTimeoutMs,
+                           @Value("${app.ai.timeout-ms:1500}") long timeoutMs,
+                           @Value("${app.ai.max-concurrent:32}") int maxConcurrent,
+                           @Value("${app.ai.breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${app.ai.breaker.open-seconds:10}") long openSeconds,
+                           @Value("${app.ai.hedge-delay-ms:0}") long hedgeDelayMs) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.budget = Duration.ofMillis(timeoutMs);
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.maxConcurrent = maxConcurrent;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds).toMillis());
+    }
+
+    /**
+     * GET a JSON document from the sidecar. The future always completes within the budget, with
+     * null on any failure, rejection or timeout.
+     */
+    public CompletableFuture<JsonNode> getJsonAsync(String pathAndQuery) {
+        URI uri = URI.create(baseUrl + pathAndQuery);
+        if (!bulkhead.tryAcquire()) {
+            rejectedByBulkhead.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            rejectedByBreaker.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+        return send(uri)
+                .orTimeout(budget.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, error) -> {
+                    try {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+                                onFailure("timed out (" + budget.toMillis() + "ms)", pathAndQuery, null);
+                            } else {
+                                onFailure("unreachable or failed", pathAndQuery, cause);
+                            }
+                            return null;
+                        }
+                        JsonNode body = objectMapper.readTree(response.body());
+                        circuitBreaker.recordSuccess();
+                        return body;
+                    } catch (Exception ex) {
+                        onFailure("returned an unreadable response", pathAndQuery, ex);
+                        return null;
+                    }
+                });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuit", circuitBreaker.getState().name());
+        stats.put("inFlight", maxConcurrent - bulkhead.availablePermits());
+        stats.put("failures", failures.sum());
+        stats.put("rejectedByBreaker", rejectedByBreaker.sum());
+        stats.put("rejectedByBulkhead", rejectedByBulkhead.sum());
+        stats.put("hedgesSent", hedgesSent.sum());
+        return stats;
+    }
+
+    /**
+     * First successful response wins; fails only when every attempt has failed. The caller holds
+     * one bulkhead permit for the first attempt; a hedge is only sent if it can take its own.
+     */
+    private CompletableFuture<HttpResponse<String>> send(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(budget)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        CompletableFuture<HttpResponse<String>> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        attempt(request, winner, pending);
+
+        if (hedgeDelayMs > 0 && hedgeDelayMs < budget.toMillis()) {
+            CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS).execute(() -> {
+                if (winner.isDone() || !bulkhead.tryAcquire()) return;
+                pending.incrementAndGet();
+                hedgesSent.increment();
+                attempt(request, winner, pending);
+            });
+        }
+        return winner;
+    }
+
+    /**
+     * Send one request under a bulkhead permit already acquired; the permit is released when the
+     * request completes (the request's own timeout bounds how long that takes).
+     */
+    private void attempt(HttpRequest request, CompletableFuture<HttpResponse<String>> winner, AtomicInteger pending) {
+        CompletableFuture<HttpResponse<String>> sent;
+        try {
+            sent = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            if (pending.decrementAndGet() == 0) winner.completeExceptionally(e);
+            return;
+        }
+        sent.whenComplete((response, error) -> {
+            bulkhead.release();
+            if (error == null && response.statusCode() / 100 == 2) {
+                winner.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(error != null ? error
+                        : new IOException("HTTP " + response.statusCode()));
+            }
+        });
+    }
+
+    private void onFailure(String reason, String pathAndQuery, Throwable ex) {
+        failures.increment();
+        circuitBreaker.recordFailure();
+        if (ex != null) {
+            logger.warn("Python AI API {} for {}", reason, pathAndQuery, ex);
+        } else {
+            logger.warn("Python AI API {} for {}", reason, pathAndQuery);
+        }
+    }
+}
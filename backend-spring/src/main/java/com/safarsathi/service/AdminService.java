@@ -3,9 +3,13 @@ package com.safarsathi.service;
 import com.safarsathi.entity.PoliceDepartment;
 import com.safarsathi.repository.PoliceDepartmentRepository;
 import com.safarsathi.security.JwtService;
+import com.safarsathi.security.PasswordHashingService;
 import com.safarsathi.util.HashUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -15,8 +19,9 @@ import java.util.Map;
 public class AdminService {
 
     private final PoliceDepartmentRepository policeDepartmentRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Validate admin login (police department credentials).
@@ -29,7 +34,12 @@ public class AdminService {
                 .orElse(null);
         if (admin == null) return null;
 
-        if (!passwordEncoder.matches(password, admin.getPasswordHash())) return null;
+        if (!passwordHashingService.matches(password, admin.getPasswordHash())) return null;
+
+        String currentHash = admin.getPasswordHash();
+        passwordHashingService.rehashIfNeeded(password, currentHash, newHash -> mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(admin.getId()).and("passwordHash").is(currentHash)),
+                new Update().set("passwordHash", newHash), PoliceDepartment.class));
         return admin;
     }
 
@@ -2,22 +2,44 @@ package com.safarsathi.service;
 
 import com.safarsathi.entity.Alert;
 import com.safarsathi.entity.Notification;
+import com.safarsathi.entity.Tourist;
 import com.safarsathi.repository.AlertRepository;
-import com.safarsathi.repository.NotificationRepository;
+import com.safarsathi.repository.TouristRepository;
+import com.safarsathi.util.GeoFenceUtil;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class AlertService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AlertService.class);
+    public static final String ALERT_STATE_SOS = "SOS";
+    public static final String ALERT_STATE_OPEN = "OPEN";
+    private static final String RESOLVED_STATUS = "RESOLVED";
+
     private final AlertRepository alertRepository;
-    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
     private final SequenceService sequenceService;
     private final WebSocketService webSocketService;
+    private final TouristRepository touristRepository;
+    private final MongoTemplate mongoTemplate;
+    private final SafetyScoreEngine safetyScoreEngine;
 
     /**
      * Create a new alert and broadcast it via WebSocket.
@@ -25,12 +47,15 @@ public class AlertService {
     public Alert createAlert(Alert alert) {
         alert.setAlertId((int) sequenceService.getNextId("alertId"));
         if (alert.getStatus() == null) alert.setStatus("OPEN");
+        fillMissingPosition(alert);
+        alert.setLocation(GeoFenceUtil.toGeoPoint(alert.getLatitude(), alert.getLongitude()));
         Alert saved = alertRepository.save(alert);
+        safetyScoreEngine.onAlertStatus(saved, null);
+        refreshAlertState(saved.getTouristId());
 
         // Create a corresponding notification
         if (saved.getTouristId() != null) {
             Notification notification = Notification.builder()
-                    .notificationId((int) sequenceService.getNextId("notificationId"))
                     .touristId(saved.getTouristId())
                     .title(saved.getAlertType() != null ? saved.getAlertType() : "Alert")
                     .message(saved.getMessage() != null ? saved.getMessage() : "Safety alert received")
@@ -38,7 +63,7 @@ public class AlertService {
                     .sourceTab("home")
                     .read(false)
                     .build();
-            notificationRepository.save(notification);
+            notificationService.createNotification(notification);
         }
 
         webSocketService.broadcastAlert(saved);
@@ -53,16 +78,59 @@ public class AlertService {
         return alertRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
     }
 
-    public List<Alert> getRecentAlerts(int limit) {
-        List<Alert> all = getAllAlerts();
-        if (limit <= 0 || all.size() <= limit) return all;
-        return all.subList(0, limit);
+    /**
+     * Open alerts inside a jurisdiction (null = state-wide).
+     */
+    public List<Alert> getActiveAlerts(Jurisdiction jurisdiction) {
+        if (jurisdiction == null) return getActiveAlerts();
+        return findInJurisdiction(Criteria.where("status").is("OPEN"), jurisdiction, 0);
+    }
+
+    /**
+     * Alert history inside a jurisdiction (null = state-wide).
+     */
+    public List<Alert> getAllAlerts(Jurisdiction jurisdiction) {
+        if (jurisdiction == null) return getAllAlerts();
+        return findInJurisdiction(null, jurisdiction, 0);
+    }
+
+    /**
+     * Most recent alerts inside a jurisdiction (null = state-wide), newest first.
+     */
+    public List<Alert> getRecentAlerts(Jurisdiction jurisdiction, int limit) {
+        return findInJurisdiction(null, jurisdiction, limit);
+    }
+
+    private List<Alert> findInJurisdiction(Criteria filter, Jurisdiction jurisdiction, int limit) {
+        Criteria criteria;
+        if (jurisdiction == null) {
+            criteria = filter != null ? filter : new Criteria();
+        } else {
+            Criteria geo = jurisdiction.toCriteria("location");
+            criteria = filter != null ? new Criteria().andOperator(filter, geo) : geo;
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        if (limit > 0) query.limit(limit);
+        return mongoTemplate.find(query, Alert.class);
     }
 
     public List<Alert> getAlertsForTourist(String touristId) {
         return alertRepository.findByTouristId(touristId, Sort.by(Sort.Direction.DESC, "createdAt"));
     }
 
+    /**
+     * Alerts raised without coordinates (e.g. an SOS with no fix) inherit the tourist's last known
+     * position so they still fall inside a jurisdiction.
+     */
+    private void fillMissingPosition(Alert alert) {
+        if (alert.getLatitude() != null && alert.getLongitude() != null) return;
+        if (alert.getTouristId() == null) return;
+        Tourist tourist = touristRepository.findById(alert.getTouristId()).orElse(null);
+        if (tourist == null || tourist.getCurrentLat() == null || tourist.getCurrentLng() == null) return;
+        alert.setLatitude(tourist.getCurrentLat());
+        alert.setLongitude(tourist.getCurrentLng());
+    }
+
     /**
      * Handle an SOS emergency.
      */
@@ -85,9 +153,77 @@ public class AlertService {
     public Alert updateAlertStatus(int alertId, String newStatus) {
         Alert alert = alertRepository.findByAlertId(alertId)
                 .orElseThrow(() -> new RuntimeException("Alert not found with ID: " + alertId));
+        String previousStatus = alert.getStatus();
         alert.setStatus(newStatus);
         Alert updated = alertRepository.save(alert);
+        safetyScoreEngine.onAlertStatus(updated, previousStatus);
+        refreshAlertState(updated.getTouristId());
         webSocketService.broadcastAlert(updated);
         return updated;
     }
+
+    /**
+     * Recompute a tourist's alertState from their open alerts after an alert write.
+     */
+    public void refreshAlertState(String touristId) {
+        if (touristId == null) return;
+        Query query = new Query(Criteria.where("touristId").is(touristId));
+        query.fields().include("touristId", "alertType", "status");
+        String state = alertStates(mongoTemplate.find(query, Alert.class)).get(touristId);
+        Update update = state != null ? new Update().set("alertState", state) : new Update().unset("alertState");
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(touristId)), update, Tourist.class);
+    }
+
+    /**
+     * Rebuild alertState at startup for every tourist with open alerts or a stale state, covering
+     * tourists whose alerts predate the field; the work is bounded by open alerts, not by tourists.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resyncAlertStates() {
+        try {
+            Query open = new Query(Criteria.where("status").ne(RESOLVED_STATUS));
+            open.fields().include("touristId", "alertType", "status");
+            Map<String, String> states = alertStates(mongoTemplate.find(open, Alert.class));
+
+            Query flagged = new Query(Criteria.where("alertState").ne(null));
+            flagged.fields().include("alertState");
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Tourist.class);
+            int writes = 0;
+            for (Tourist tourist : mongoTemplate.find(flagged, Tourist.class)) {
+                String state = states.remove(tourist.getId());
+                if (state == null) {
+                    bulk.updateOne(new Query(Criteria.where("_id").is(tourist.getId())), new Update().unset("alertState"));
+                    writes++;
+                } else if (!state.equals(tourist.getAlertState())) {
+                    bulk.updateOne(new Query(Criteria.where("_id").is(tourist.getId())), new Update().set("alertState", state));
+                    writes++;
+                }
+            }
+            for (Map.Entry<String, String> entry : states.entrySet()) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(entry.getKey())), new Update().set("alertState", entry.getValue()));
+                writes++;
+            }
+            if (writes > 0) {
+                bulk.execute();
+                logger.info("Corrected alertState for {} tourists", writes);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Alert state resync failed", e);
+        }
+    }
+
+    /**
+     * touristId -> SOS if any open alert is an SOS, else OPEN, for tourists with open alerts.
+     * Type and status compare case-insensitively, as in the directory's derived status.
+     */
+    static Map<String, String> alertStates(Collection<Alert> alerts) {
+        Map<String, String> states = new HashMap<>();
+        for (Alert alert : alerts) {
+            if (alert.getTouristId() == null || RESOLVED_STATUS.equalsIgnoreCase(alert.getStatus())) continue;
+            boolean sos = ALERT_STATE_SOS.equalsIgnoreCase(alert.getAlertType());
+            states.merge(alert.getTouristId(), sos ? ALERT_STATE_SOS : ALERT_STATE_OPEN,
+                    (a, b) -> ALERT_STATE_SOS.equals(a) || ALERT_STATE_SOS.equals(b) ? ALERT_STATE_SOS : ALERT_STATE_OPEN);
+        }
+        return states;
+    }
 }
@@ -3,11 +3,11 @@ package com.safarsathi.service;
 import com.safarsathi.entity.Alert;
 import com.safarsathi.entity.RiskZone;
 import com.safarsathi.entity.Tourist;
-import com.safarsathi.repository.TouristRepository;
 import com.safarsathi.util.GeoFenceUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -22,12 +22,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AnomalyService {
 
-    private static final int INACTIVITY_THRESHOLD_MINUTES = 30;
     private static final double DEVIATION_THRESHOLD_KM = 5.0;
 
     private final AlertService alertService;
     private final RiskZoneService riskZoneService;
-    private final TouristRepository touristRepository;
+    private final InactivityMonitor inactivityMonitor;
+    private final SafetyScoreEngine safetyScoreEngine;
 
     private final Map<String, Set<Integer>> touristActiveZones = new ConcurrentHashMap<>();
 
@@ -35,27 +35,14 @@ public class AnomalyService {
         checkInactivity(tourist);
         checkRouteDeviation(tourist);
         checkGeoFence(tourist);
+        safetyScoreEngine.onLocation(tourist);
     }
 
+    /**
+     * Inactivity is detected in the background by InactivityMonitor; a fix only re-arms the deadline.
+     */
     private void checkInactivity(Tourist tourist) {
-        if (tourist.getLastSeen() == null) return;
-        try {
-            long lastSeenMs = java.time.Instant.parse(tourist.getLastSeen()).toEpochMilli();
-            double minutesSince = (System.currentTimeMillis() - lastSeenMs) / 60000.0;
-            if (minutesSince > INACTIVITY_THRESHOLD_MINUTES) {
-                Alert alert = Alert.builder()
-                        .touristId(tourist.getId())
-                        .alertType("INACTIVITY")
-                        .latitude(tourist.getCurrentLat())
-                        .longitude(tourist.getCurrentLng())
-                        .message(String.format("Tourist has not sent a location update in %d minutes.",
-                                (int) minutesSince))
-                        .build();
-                alertService.createAlert(alert);
-            }
-        } catch (Exception ignored) {
-            // Invalid timestamp, skip
-        }
+        inactivityMonitor.recordFix(tourist.getId(), tourist.getLastSeen());
     }
 
     private void checkRouteDeviation(Tourist tourist) {
@@ -105,11 +92,11 @@ public class AnomalyService {
 
         if (entered.isEmpty()) return;
 
-        double safetyScore = tourist.getSafetyScore() != null ? tourist.getSafetyScore() : 100.0;
+        List<RiskZone> enteredZones = new ArrayList<>();
         for (Integer zoneId : entered) {
             RiskZone zone = zoneLookup.get(zoneId);
             if (zone == null) continue;
-            safetyScore = Math.max(0, safetyScore - penaltyFor(zone));
+            enteredZones.add(zone);
             Alert alert = Alert.builder()
                     .touristId(tourist.getId())
                     .alertType("RISK_ZONE")
@@ -121,17 +108,7 @@ public class AnomalyService {
             alertService.createAlert(alert);
         }
 
-        tourist.setSafetyScore(Math.max(0, Math.min(100, safetyScore)));
-        touristRepository.save(tourist);
-    }
-
-    private double penaltyFor(RiskZone zone) {
-        if (zone.getRiskLevel() == null) return 8.0;
-        return switch (zone.getRiskLevel()) {
-            case "LOW" -> 5.0;
-            case "MEDIUM" -> 10.0;
-            case "HIGH" -> 18.0;
-            default -> 8.0;
-        };
+        // The score recovers over time and is persisted in batches by SafetyScoreEngine
+        safetyScoreEngine.onZonesEntered(tourist, enteredZones);
     }
 }
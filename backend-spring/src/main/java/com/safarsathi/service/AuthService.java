@@ -4,12 +4,20 @@ import com.safarsathi.dto.TouristRegistrationRequest;
 import com.safarsathi.dto.TouristResponse;
 import com.safarsathi.entity.Tourist;
 import com.safarsathi.repository.TouristRepository;
+import com.safarsathi.security.IdCredentialService;
 import com.safarsathi.security.JwtService;
+import com.safarsathi.security.PasswordHashingService;
+import com.safarsathi.security.TokenRevocationService;
+import com.safarsathi.util.GeoFenceUtil;
 import com.safarsathi.util.HashUtil;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -27,13 +35,19 @@ public class AuthService {
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
     private final TouristRepository touristRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenRevocationService tokenRevocationService;
     private final JwtService jwtService;
     private final BlockchainService blockchainService;
+    private final IdVerificationService idVerificationService;
+    private final IdCredentialService idCredentialService;
     private final AnomalyService anomalyService;
+    private final InactivityMonitor inactivityMonitor;
+    private final SafetyScoreEngine safetyScoreEngine;
     private final com.safarsathi.repository.AlertRepository alertRepository;
     private final com.safarsathi.repository.BlockchainLogRepository blockchainLogRepository;
-    private final com.safarsathi.repository.NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Register a new tourist.
@@ -43,7 +57,7 @@ public class AuthService {
             throw new IllegalArgumentException("Email already registered");
         }
 
-        String hashedPassword = passwordEncoder.encode(request.getPasswordHash());
+        String hashedPassword = passwordHashingService.encode(request.getPasswordHash());
         String idHashInput = request.getPassportNumber() + request.getPhone() + Instant.now().toString();
         String idHash = HashUtil.sha256(idHashInput);
         Instant expiry = Instant.now().plus(365, ChronoUnit.DAYS);
@@ -72,9 +86,12 @@ public class AuthService {
                 .passwordHash(hashedPassword)
                 .idHash(idHash)
                 .idExpiry(expiry.toString())
+                .idStatus(BlockchainService.ID_QUEUED)
+                .idQueuedAt(Instant.now())
                 .currentLat(request.getCurrentLat())
                 .currentLng(request.getCurrentLng())
-                .lastSeen(Instant.now().toString())
+                .location(GeoFenceUtil.toGeoPoint(request.getCurrentLat(), request.getCurrentLng()))
+                .lastSeen(Instant.now())
                 .travelType(request.getTravelType())
                 .preferredLanguage(request.getPreferredLanguage())
                 .visaType(request.getVisaType())
@@ -82,17 +99,21 @@ public class AuthService {
                 .isActive(true)
                 .safetyScore(100.0)
                 .build();
+        tourist.setIdCredential(idCredentialService.issue(tourist));
 
         tourist = touristRepository.save(tourist);
+        inactivityMonitor.recordFix(tourist.getId(), tourist.getLastSeen());
 
-        // Issue digital ID on mock blockchain
-        blockchainService.issueDigitalID(tourist.getId(), idHash);
+        // The ID was queued for the ledger by the insert above; anchoring happens off the request path
+        blockchainService.anchorQueuedAsync();
+        idVerificationService.register(idHash);
 
         String token = jwtService.generateToken(tourist.getId(), "tourist");
 
         Map<String, Object> result = new HashMap<>();
         result.put("touristId", tourist.getId());
         result.put("qr_content", "/api/admin/id/verify?hash=" + idHash);
+        result.put("id_credential", tourist.getIdCredential());
         result.put("token", token);
         result.put("user", toResponse(tourist));
         return result;
@@ -104,20 +125,49 @@ public class AuthService {
     public Map<String, Object> loginTourist(String email, String password) {
         Tourist tourist = touristRepository.findByEmail(email)
                 .orElse(null);
-        if (tourist == null || !passwordEncoder.matches(password, tourist.getPasswordHash())) {
+        if (tourist == null || !passwordHashingService.matches(password, tourist.getPasswordHash())) {
             return null;
         }
+        String touristId = tourist.getId();
+        String currentHash = tourist.getPasswordHash();
+        passwordHashingService.rehashIfNeeded(password, currentHash, newHash -> mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(touristId).and("passwordHash").is(currentHash)),
+                new Update().set("passwordHash", newHash), Tourist.class));
+
+        if (tourist.getIdCredential() == null && tourist.getIdHash() != null) {
+            // Accounts registered before offline credentials existed get one on their next login
+            String credential = idCredentialService.issue(tourist);
+            boolean stored = mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(touristId).and("idCredential").is(null)),
+                    new Update().set("idCredential", credential), Tourist.class).getModifiedCount() > 0;
+            // A concurrent login stored its own credential first; hand out that one
+            tourist.setIdCredential(stored ? credential
+                    : touristRepository.findById(touristId).map(Tourist::getIdCredential).orElse(credential));
+        }
 
         String token = jwtService.generateToken(tourist.getId(), "tourist");
 
         Map<String, Object> result = new HashMap<>();
         result.put("touristId", tourist.getId());
         result.put("qr_content", "/api/admin/id/verify?hash=" + tourist.getIdHash());
+        result.put("id_credential", tourist.getIdCredential());
         result.put("token", token);
         result.put("user", toResponse(tourist));
         return result;
     }
 
+    /**
+     * Revoke the presented token. Returns false if it was already invalid.
+     */
+    public boolean logout(String token) {
+        return jwtService.authenticate(token)
+                .map(principal -> {
+                    tokenRevocationService.revoke(principal, "logout");
+                    return true;
+                })
+                .orElse(false);
+    }
+
     /**
      * Get tourist profile.
      */
@@ -175,15 +225,20 @@ public class AuthService {
     }
 
     /**
-     * Update tourist location and trigger anomaly detection.
+     * Update tourist location and trigger anomaly detection. Only the position fields are set, so
+     * fields maintained elsewhere (safety score, alertState, ID issuance) are never overwritten.
      */
     public void updateLocation(String touristId, Double lat, Double lng, Double accuracy) {
-        Tourist tourist = touristRepository.findById(touristId)
-                .orElseThrow(() -> new RuntimeException("Tourist not found."));
-        tourist.setCurrentLat(lat);
-        tourist.setCurrentLng(lng);
-        tourist.setLastSeen(Instant.now().toString());
-        tourist = touristRepository.save(tourist);
+        Tourist tourist = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(touristId)),
+                new Update()
+                        .set("currentLat", lat)
+                        .set("currentLng", lng)
+                        .set("location", GeoFenceUtil.toGeoPoint(lat, lng))
+                        .set("lastSeen", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Tourist.class);
+        if (tourist == null) throw new RuntimeException("Tourist not found.");
         try {
             anomalyService.processLocation(tourist);
         } catch (Exception ex) {
@@ -206,6 +261,14 @@ public class AuthService {
         return touristRepository.findAll();
     }
 
+    /**
+     * List tourists inside a jurisdiction (null = state-wide).
+     */
+    public List<Tourist> listTourists(Jurisdiction jurisdiction) {
+        if (jurisdiction == null) return listTourists();
+        return mongoTemplate.find(new Query(jurisdiction.toCriteria("location")), Tourist.class);
+    }
+
     /**
      * Request a password reset token.
      */
@@ -238,10 +301,11 @@ public class AuthService {
                 .orElse(null);
         if (tourist == null) return false;
 
-        tourist.setPasswordHash(passwordEncoder.encode(newPassword));
+        tourist.setPasswordHash(passwordHashingService.encode(newPassword));
         tourist.setResetTokenHash(null);
         tourist.setResetTokenExpires(null);
         touristRepository.save(tourist);
+        tokenRevocationService.revokeAll(tourist.getId(), "password-reset");
         return true;
     }
 
@@ -254,8 +318,15 @@ public class AuthService {
 
         alertRepository.deleteByTouristId(touristId);
         blockchainLogRepository.deleteByTouristId(touristId);
-        notificationRepository.deleteByTouristId(touristId);
+        notificationService.deleteAll(touristId);
         touristRepository.deleteById(touristId);
+        tokenRevocationService.revokeAll(touristId, "account-deleted");
+        idVerificationService.evict(tourist.getIdHash());
+        if (tourist.getIdCredential() != null) {
+            idCredentialService.revoke(tourist.getIdCredential(), "account-deleted");
+        }
+        inactivityMonitor.cancel(touristId);
+        safetyScoreEngine.forget(touristId);
         return true;
     }
 
@@ -286,10 +357,12 @@ public class AuthService {
                 .medicalConditions(tourist.getMedicalConditions())
                 .currentLat(tourist.getCurrentLat())
                 .currentLng(tourist.getCurrentLng())
-                .lastSeen(tourist.getLastSeen())
+                .lastSeen(tourist.getLastSeen() != null ? tourist.getLastSeen().toString() : null)
                 .idHash(tourist.getIdHash())
+                .idCredential(tourist.getIdCredential())
                 .idExpiry(tourist.getIdExpiry())
-                .safetyScore(tourist.getSafetyScore())
+                .idStatus(tourist.getIdStatus())
+                .safetyScore(safetyScoreEngine.currentScore(tourist))
                 .travelType(tourist.getTravelType())
                 .preferredLanguage(tourist.getPreferredLanguage())
                 .visaType(tourist.getVisaType())
@@ -1,43 +1,293 @@
 package com.safarsathi.service;
 
 import com.safarsathi.entity.BlockchainLog;
+import com.safarsathi.entity.LedgerBlock;
+import com.safarsathi.entity.Tourist;
 import com.safarsathi.repository.BlockchainLogRepository;
-import lombok.RequiredArgsConstructor;
+import com.safarsathi.repository.LedgerBlockRepository;
+import com.safarsathi.util.CoalescingRefresher;
+import com.safarsathi.util.HashUtil;
+import com.safarsathi.util.MerkleTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Append-only ledger for digital ID issuance.
+ * Registration only marks the tourist's ID as QUEUED; a background worker drains that durable
+ * queue in batches into issuance records. Issuances are recorded as PENDING and committed in blocks, on a size or time trigger. Each block
+ * holds the Merkle root of its issuances and the hash of the previous block; each committed
+ * issuance stores its O(log n) inclusion proof, so verifying an ID is two indexed reads and
+ * log2(block size) hashes.
+ */
 @Service
-@RequiredArgsConstructor
 public class BlockchainService {
 
-    private static final String MOCK_TX_PREFIX = "0xHACK_SAT_";
-    private static final String SUCCESS_STATUS = "SUCCESS_ISSUED_ON_TESTNET";
+    private static final Logger logger = LoggerFactory.getLogger(BlockchainService.class);
+    private static final String PENDING_STATUS = "PENDING";
+    private static final String COMMITTED_STATUS = "COMMITTED";
+    /** Issuances from the earlier mock ledger, which have no block. */
+    private static final String LEGACY_STATUS = "SUCCESS_ISSUED_ON_TESTNET";
+    private static final String GENESIS_HASH = "0".repeat(64);
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    /** Tourist.idStatus: written by registration, waiting for an issuance record. */
+    public static final String ID_QUEUED = "QUEUED";
+    /** Tourist.idStatus: claimed by a queue worker until idQueuedAt + the claim lease. */
+    public static final String ID_ISSUING = "ISSUING";
+    /** Tourist.idStatus: issuance recorded, waiting for a block. */
+    public static final String ID_PENDING = "PENDING";
+    /** Tourist.idStatus: included in a committed block. */
+    public static final String ID_ANCHORED = "ANCHORED";
 
     private final BlockchainLogRepository blockchainLogRepository;
+    private final LedgerBlockRepository ledgerBlockRepository;
     private final SequenceService sequenceService;
+    private final MongoTemplate mongoTemplate;
+    private final int blockSize;
+    private final int queueBatchSize;
+    private final Duration claimLease;
+    private final AtomicInteger pendingSinceCommit = new AtomicInteger();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final AtomicBoolean queueSignalled = new AtomicBoolean();
+    /** Out-of-band drains and commits run on their own threads, never on the common pool. */
+    private final CoalescingRefresher queueDrainer = new CoalescingRefresher("ledger-queue", this::anchorQueued);
+    private final CoalescingRefresher blockCommitter = new CoalescingRefresher("ledger-commit", this::commitPending);
+
+    public BlockchainService(BlockchainLogRepository blockchainLogRepository,
+                             LedgerBlockRepository ledgerBlockRepository,
+                             SequenceService sequenceService,
+                             MongoTemplate mongoTemplate,
+                             @Value("${app.ledger.block-size:256}") int blockSize,
+                             @Value("${app.ledger.queue-batch-size:500}") int queueBatchSize,
+                             @Value("${app.ledger.claim-lease-ms:60000}") long claimLeaseMs) {
+        this.blockchainLogRepository = blockchainLogRepository;
+        this.ledgerBlockRepository = ledgerBlockRepository;
+        this.sequenceService = sequenceService;
+        this.mongoTemplate = mongoTemplate;
+        this.blockSize = Math.max(1, blockSize);
+        this.queueBatchSize = Math.max(1, queueBatchSize);
+        this.claimLease = Duration.ofMillis(claimLeaseMs);
+    }
+
+    /**
+     * Drain queued IDs now instead of waiting for the next poll. Returns immediately.
+     */
+    public void anchorQueuedAsync() {
+        queueDrainer.request();
+    }
+
+    /**
+     * Turn queued IDs into issuance records, a batch at a time. A signal that arrives while
+     * another thread is draining makes that thread go round once more, so nothing waits a poll.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.queue-poll-ms:1000}")
+    public void anchorQueued() {
+        queueSignalled.set(true);
+        while (queueSignalled.get() && queueLock.tryLock()) {
+            try {
+                queueSignalled.set(false);
+                while (issueBatch() == queueBatchSize) {
+                    // keep draining full batches
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Ledger queue drain failed; claimed IDs will be retried after the lease", e);
+                return;
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
 
     /**
-     * Issues a mock digital ID on a simulated blockchain.
+     * Claim up to a batch of queued IDs and record their issuances with one sequence reservation
+     * and one insert. Returns the number of candidates seen.
+     * The claim timestamp fences this worker: once its lease lapses and another worker re-claims
+     * an ID, this worker's status writes no longer match, and the unique dataHash index rejects a
+     * second issuance record if both get as far as inserting.
      */
-    public BlockchainLog issueDigitalID(String touristId, String idHash) {
-        BlockchainLog log = BlockchainLog.builder()
-                .logId((int) sequenceService.getNextId("blockchainLogId"))
+    private int issueBatch() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Query candidates = new Query(new Criteria().orOperator(
+                Criteria.where("idStatus").is(ID_QUEUED),
+                Criteria.where("idStatus").is(ID_ISSUING).and("idQueuedAt").lt(now.minus(claimLease))))
+                .with(Sort.by(Sort.Direction.ASC, "idQueuedAt"))
+                .limit(queueBatchSize);
+        candidates.fields().include("idHash", "idStatus", "idQueuedAt");
+        List<Tourist> found = mongoTemplate.find(candidates, Tourist.class);
+
+        List<Tourist> claimed = new ArrayList<>(found.size());
+        for (Tourist tourist : found) {
+            // Conditional on the exact state read, so only one worker wins each ID
+            Query claim = new Query(Criteria.where("_id").is(tourist.getId())
+                    .and("idStatus").is(tourist.getIdStatus())
+                    .and("idQueuedAt").is(tourist.getIdQueuedAt()));
+            if (mongoTemplate.updateFirst(claim, new Update().set("idStatus", ID_ISSUING).set("idQueuedAt", now),
+                    Tourist.class).getModifiedCount() > 0) {
+                claimed.add(tourist);
+            }
+        }
+        if (claimed.isEmpty()) return found.size();
+        claimed = stillClaimed(claimed, now);
+        if (claimed.isEmpty()) return found.size();
+
+        // A worker that died after inserting but before marking PENDING left records behind
+        Query recorded = new Query(Criteria.where("dataHash").in(claimed.stream().map(Tourist::getIdHash).toList()));
+        recorded.fields().include("dataHash", "status");
+        Set<String> alreadyRecorded = new HashSet<>();
+        Set<String> alreadyAnchored = new HashSet<>();
+        for (BlockchainLog log : mongoTemplate.find(recorded, BlockchainLog.class)) {
+            alreadyRecorded.add(log.getDataHash());
+            if (!PENDING_STATUS.equals(log.getStatus())) alreadyAnchored.add(log.getDataHash());
+        }
+
+        List<Tourist> toIssue = claimed.stream().filter(t -> !alreadyRecorded.contains(t.getIdHash())).toList();
+        if (!toIssue.isEmpty()) {
+            long firstLogId = sequenceService.reserveIds("blockchainLogId", toIssue.size());
+            List<BlockchainLog> logs = new ArrayList<>(toIssue.size());
+            for (int i = 0; i < toIssue.size(); i++) {
+                logs.add(newLog((int) (firstLogId + i), toIssue.get(i).getId(), toIssue.get(i).getIdHash()));
+            }
+            insertLogs(logs);
+        }
+
+        markClaimed(claimed.stream().filter(t -> !alreadyAnchored.contains(t.getIdHash())).toList(), ID_PENDING, now);
+        markClaimed(claimed.stream().filter(t -> alreadyAnchored.contains(t.getIdHash())).toList(), ID_ANCHORED, now);
+        if (pendingSinceCommit.addAndGet(toIssue.size()) >= blockSize) {
+            blockCommitter.request();
+        }
+        return found.size();
+    }
+
+    /**
+     * The subset of IDs whose claim is still this worker's (claims can be slow to get through).
+     */
+    private List<Tourist> stillClaimed(List<Tourist> claimed, Instant claimedAt) {
+        Query held = new Query(Criteria.where("_id").in(claimed.stream().map(Tourist::getId).toList())
+                .and("idStatus").is(ID_ISSUING)
+                .and("idQueuedAt").is(claimedAt));
+        held.fields().include("_id");
+        Set<String> heldIds = new HashSet<>();
+        mongoTemplate.find(held, Tourist.class).forEach(tourist -> heldIds.add(tourist.getId()));
+        return claimed.stream().filter(tourist -> heldIds.contains(tourist.getId())).toList();
+    }
+
+    /**
+     * Unordered insert; records rejected as duplicates were written by a worker whose lease
+     * lapsed, and count as recorded.
+     */
+    private void insertLogs(List<BlockchainLog> logs) {
+        BulkOperations inserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BlockchainLog.class);
+        inserts.insert(logs);
+        try {
+            inserts.execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY_CODE)) throw e;
+            logger.info("{} issuance records already written by another ledger worker", e.getErrors().size());
+        }
+    }
+
+    private void markClaimed(List<Tourist> tourists, String idStatus, Instant claimedAt) {
+        if (tourists.isEmpty()) return;
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(tourists.stream().map(Tourist::getId).toList())
+                        .and("idStatus").is(ID_ISSUING)
+                        .and("idQueuedAt").is(claimedAt)),
+                new Update().set("idStatus", idStatus).unset("idQueuedAt"),
+                Tourist.class);
+    }
+
+    private static BlockchainLog newLog(int logId, String touristId, String idHash) {
+        String leafHash = HashUtil.toHex(leafHash(logId, touristId, idHash));
+        return BlockchainLog.builder()
+                .logId(logId)
                 .touristId(touristId)
                 .dataHash(idHash)
-                .transactionId(MOCK_TX_PREFIX + UUID.randomUUID().toString().substring(0, 8))
-                .status(SUCCESS_STATUS)
+                .leafHash(leafHash)
+                .transactionId("0x" + leafHash)
+                .status(PENDING_STATUS)
                 .build();
-        return blockchainLogRepository.save(log);
     }
 
     /**
-     * Verify that an ID proof exists on the mock blockchain.
+     * Outcome of checking an ID against the ledger.
+     */
+    public enum ProofStatus {
+        /** Included in a committed block whose hash is intact. */
+        ANCHORED,
+        /** Queued or recorded, not yet in a block. */
+        PENDING,
+        FAILED
+    }
+
+    /**
+     * Verify an ID against the ledger: anchored, still pending, or failed (unknown or tampered).
      */
-    public boolean verifyIDProof(String idHash) {
-        return blockchainLogRepository.findByDataHashAndStatus(idHash, SUCCESS_STATUS) != null;
+    public ProofStatus verifyIDProof(String idHash) {
+        BlockchainLog log = blockchainLogRepository.findFirstByDataHashOrderByLogIdDesc(idHash).orElse(null);
+        if (log == null) return isQueued(idHash) ? ProofStatus.PENDING : ProofStatus.FAILED;
+        if (LEGACY_STATUS.equals(log.getStatus())) return ProofStatus.ANCHORED;
+        if (PENDING_STATUS.equals(log.getStatus())) return ProofStatus.PENDING;
+        if (!COMMITTED_STATUS.equals(log.getStatus()) || log.getBlockHeight() == null) return ProofStatus.FAILED;
+
+        LedgerBlock block = ledgerBlockRepository.findByHeight(log.getBlockHeight()).orElse(null);
+        return block != null && verifyInclusion(log, idHash, block) && blockHash(block).equals(block.getBlockHash())
+                ? ProofStatus.ANCHORED : ProofStatus.FAILED;
+    }
+
+    /**
+     * Inclusion proof for an ID, for verification outside this service. The leaf is
+     * hashLeaf(logId|touristId|idHash), so logId and touristId are returned to rebuild it.
+     */
+    public Optional<Map<String, Object>> getProof(String idHash) {
+        BlockchainLog log = blockchainLogRepository.findFirstByDataHashOrderByLogIdDesc(idHash).orElse(null);
+        if (log == null) {
+            return isQueued(idHash) ? Optional.of(Map.of("status", ID_QUEUED)) : Optional.empty();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", log.getStatus());
+        result.put("logId", log.getLogId());
+        result.put("touristId", log.getTouristId());
+        result.put("leafHash", log.getLeafHash());
+        if (log.getBlockHeight() != null) {
+            ledgerBlockRepository.findByHeight(log.getBlockHeight()).ifPresent(block -> {
+                result.put("blockHeight", block.getHeight());
+                result.put("leafIndex", log.getLeafIndex());
+                result.put("proof", log.getProof());
+                result.put("merkleRoot", block.getMerkleRoot());
+                result.put("prevHash", block.getPrevHash());
+                result.put("blockHash", block.getBlockHash());
+            });
+        }
+        return Optional.of(result);
     }
 
     /**
@@ -49,4 +299,134 @@ public class BlockchainService {
         if (limit <= 0 || logs.size() <= limit) return logs;
         return logs.subList(0, limit);
     }
+
+    /**
+     * Commit pending issuances in full blocks, then whatever remains. Runs on the time trigger and
+     * whenever a block's worth of issuances has accumulated.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.commit-interval-ms:5000}")
+    public void commitPending() {
+        if (!commitLock.tryLock()) return;
+        try {
+            pendingSinceCommit.set(0);
+            while (true) {
+                LedgerBlock tip = ledgerBlockRepository.findTopByOrderByHeightDesc().orElse(null);
+                // Finish the tip before reading the batch, or its unmarked issuances would be
+                // read as pending and committed a second time in the next block
+                if (tip != null) {
+                    completeBlock(tip);
+                }
+                Query query = new Query(Criteria.where("status").is(PENDING_STATUS))
+                        .with(Sort.by(Sort.Direction.ASC, "logId"))
+                        .limit(blockSize);
+                List<BlockchainLog> pending = mongoTemplate.find(query, BlockchainLog.class);
+                if (pending.isEmpty() || !commitBlock(tip, pending) || pending.size() < blockSize) break;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ledger commit failed; pending issuances will be retried", e);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private boolean isQueued(String idHash) {
+        return mongoTemplate.exists(new Query(Criteria.where("idHash").is(idHash)
+                .and("idStatus").in(ID_QUEUED, ID_ISSUING)), Tourist.class);
+    }
+
+    private boolean commitBlock(LedgerBlock tip, List<BlockchainLog> pending) {
+        List<byte[]> leaves = new ArrayList<>(pending.size());
+        List<Integer> logIds = new ArrayList<>(pending.size());
+        List<String> leafHashes = new ArrayList<>(pending.size());
+        for (BlockchainLog log : pending) {
+            leaves.add(HashUtil.fromHex(log.getLeafHash()));
+            logIds.add(log.getLogId());
+            leafHashes.add(log.getLeafHash());
+        }
+        MerkleTree tree = MerkleTree.fromLeafHashes(leaves);
+
+        LedgerBlock block = LedgerBlock.builder()
+                .height(tip != null ? tip.getHeight() + 1 : 0L)
+                .prevHash(tip != null ? tip.getBlockHash() : GENESIS_HASH)
+                .merkleRoot(HashUtil.toHex(tree.root()))
+                .size(pending.size())
+                .logIds(logIds)
+                .leafHashes(leafHashes)
+                .createdAt(Instant.ofEpochMilli(System.currentTimeMillis()))
+                .build();
+        block.setBlockHash(blockHash(block));
+
+        try {
+            ledgerBlockRepository.insert(block);
+        } catch (DuplicateKeyException e) {
+            // Another instance committed this height first; its block will be completed next round
+            logger.info("Ledger height {} already committed elsewhere", block.getHeight());
+            return false;
+        }
+        applyProofs(block, tree, pending.stream().map(BlockchainLog::getTouristId).toList());
+        logger.debug("Committed ledger block {} with {} issuances", block.getHeight(), block.getSize());
+        return true;
+    }
+
+    /**
+     * Finish a block whose issuances were not all marked (e.g. a crash after the block insert).
+     */
+    private void completeBlock(LedgerBlock block) {
+        Query stillPending = new Query(new Criteria().andOperator(
+                Criteria.where("logId").in(block.getLogIds()),
+                Criteria.where("status").is(PENDING_STATUS)));
+        if (!mongoTemplate.exists(stillPending, BlockchainLog.class)) return;
+        Query members = new Query(Criteria.where("logId").in(block.getLogIds()));
+        members.fields().include("touristId");
+        List<String> touristIds = mongoTemplate.find(members, BlockchainLog.class).stream()
+                .map(BlockchainLog::getTouristId)
+                .toList();
+        applyProofs(block, MerkleTree.fromLeafHashes(block.getLeafHashes().stream().map(HashUtil::fromHex).toList()),
+                touristIds);
+    }
+
+    private void applyProofs(LedgerBlock block, MerkleTree tree, List<String> touristIds) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BlockchainLog.class);
+        List<Integer> logIds = block.getLogIds();
+        for (int i = 0; i < logIds.size(); i++) {
+            List<String> proof = tree.proof(i).stream().map(MerkleTree.ProofStep::encode).toList();
+            bulk.updateOne(
+                    new Query(Criteria.where("logId").is(logIds.get(i)).and("status").is(PENDING_STATUS)),
+                    new Update()
+                            .set("status", COMMITTED_STATUS)
+                            .set("blockHeight", block.getHeight())
+                            .set("leafIndex", i)
+                            .set("proof", proof));
+        }
+        bulk.execute();
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(touristIds).and("idStatus").is(ID_PENDING)),
+                new Update().set("idStatus", ID_ANCHORED),
+                Tourist.class);
+    }
+
+    /**
+     * The leaf is recomputed from the ID being checked, so a record whose dataHash or touristId
+     * was edited no longer matches the leaf committed in the block.
+     */
+    private static boolean verifyInclusion(BlockchainLog log, String idHash, LedgerBlock block) {
+        if (log.getLeafHash() == null || log.getProof() == null || log.getLogId() == null) return false;
+        try {
+            byte[] leaf = leafHash(log.getLogId(), log.getTouristId(), idHash);
+            if (!MessageDigest.isEqual(leaf, HashUtil.fromHex(log.getLeafHash()))) return false;
+            List<MerkleTree.ProofStep> proof = log.getProof().stream().map(MerkleTree.ProofStep::decode).toList();
+            return MerkleTree.verify(leaf, proof, HashUtil.fromHex(block.getMerkleRoot()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] leafHash(int logId, String touristId, String idHash) {
+        return MerkleTree.hashLeaf((logId + "|" + touristId + "|" + idHash).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String blockHash(LedgerBlock block) {
+        return HashUtil.sha256(block.getHeight() + "|" + block.getPrevHash() + "|" + block.getMerkleRoot()
+                + "|" + block.getSize() + "|" + block.getCreatedAt().toEpochMilli());
+    }
 }
@@ -0,0 +1,131 @@
+package com.safarsathi.service;
+
+import com.safarsathi.util.IncidentDataset.Incident;
+import com.safarsathi.util.KernelDangerModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Held-out comparison of the embedded model against the dataset labels and the Python sidecar.
+ * Every HOLDOUT_EVERY-th incident is held out; the embedded model is rebuilt on the rest.
+ * The sidecar model may have been trained on the full dataset, so its numbers can be optimistic.
+ * Sidecar calls are made asynchronously, at most SIDECAR_CONCURRENCY at a time, so a large sample
+ * neither waits on them one by one nor floods the sidecar.
+ */
+@Service
+@RequiredArgsConstructor
+public class DangerModelEvaluator {
+
+    private static final int HOLDOUT_EVERY = 10;
+    private static final int MAX_SAMPLE = 2000;
+    private static final int SIDECAR_CONCURRENCY = 8;
+
+    private final EmbeddedDangerModel embeddedDangerModel;
+    private final AISafetyService aiSafetyService;
+
+    public Map<String, Object> evaluate(int sampleSize, boolean includeSidecar) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("sample must be positive");
+        }
+        List<Incident> incidents;
+        try {
+            incidents = embeddedDangerModel.loadIncidents();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Incident dataset unavailable", ex);
+        }
+
+        List<Incident> train = new ArrayList<>();
+        List<Incident> holdout = new ArrayList<>();
+        for (int i = 0; i < incidents.size(); i++) {
+            (i % HOLDOUT_EVERY == 0 ? holdout : train).add(incidents.get(i));
+        }
+        KernelDangerModel model = embeddedDangerModel.build(train);
+        double trainMean = train.stream().mapToDouble(Incident::dangerScore).average().orElse(0.0);
+
+        int sample = Math.min(Math.min(sampleSize, MAX_SAMPLE), holdout.size());
+        int stride = Math.max(1, holdout.size() / Math.max(1, sample));
+
+        ErrorStats embedded = new ErrorStats();
+        ErrorStats baseline = new ErrorStats();
+        ErrorStats sidecar = new ErrorStats();
+        ErrorStats agreement = new ErrorStats();
+        long embeddedNanos = 0;
+        Semaphore sidecarPermits = new Semaphore(SIDECAR_CONCURRENCY);
+        List<double[]> compared = new ArrayList<>();
+        List<CompletableFuture<Double>> remotes = new ArrayList<>();
+        for (int i = 0, taken = 0; i < holdout.size() && taken < sample; i += stride, taken++) {
+            Incident row = holdout.get(i);
+            long start = System.nanoTime();
+            double predicted = model.score(row.lat(), row.lng(), row.hour());
+            embeddedNanos += System.nanoTime() - start;
+            embedded.add(predicted, row.dangerScore());
+            baseline.add(trainMean, row.dangerScore());
+
+            if (includeSidecar) {
+                sidecarPermits.acquireUninterruptibly();
+                CompletableFuture<Double> remote;
+                try {
+                    remote = aiSafetyService.fetchSidecarScoreAsync(row.lat(), row.lng(), row.hour());
+                } catch (RuntimeException ex) {
+                    remote = CompletableFuture.completedFuture(null);
+                }
+                remote.whenComplete((score, ex) -> sidecarPermits.release());
+                compared.add(new double[]{predicted, row.dangerScore()});
+                remotes.add(remote);
+            }
+        }
+
+        for (int i = 0; i < remotes.size(); i++) {
+            Double remote = remotes.get(i).exceptionally(ex -> null).join();
+            if (remote != null) {
+                sidecar.add(remote, compared.get(i)[1]);
+                agreement.add(compared.get(i)[0], remote);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("trainSize", train.size());
+        result.put("holdoutSize", holdout.size());
+        result.put("evaluated", embedded.count);
+        result.put("embedded", embedded.toMap());
+        result.put("embeddedAvgMicros", embedded.count > 0 ? embeddedNanos / 1000.0 / embedded.count : 0);
+        result.put("meanBaseline", baseline.toMap());
+        if (includeSidecar) {
+            result.put("sidecar", sidecar.count > 0 ? sidecar.toMap() : "unavailable");
+            if (agreement.count > 0) {
+                result.put("embeddedVsSidecar", agreement.toMap());
+            }
+        }
+        return result;
+    }
+
+    private static final class ErrorStats {
+        private int count;
+        private double absSum;
+        private double sqSum;
+
+        private void add(double predicted, double actual) {
+            double error = predicted - actual;
+            count++;
+            absSum += Math.abs(error);
+            sqSum += error * error;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("n", count);
+            map.put("mae", count > 0 ? absSum / count : null);
+            map.put("rmse", count > 0 ? Math.sqrt(sqSum / count) : null);
+            return map;
+        }
+    }
+}
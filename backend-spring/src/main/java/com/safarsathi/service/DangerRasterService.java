@@ -0,0 +1,121 @@
+package com.safarsathi.service;
+
+import com.safarsathi.util.DangerRaster;
+import com.safarsathi.util.DangerRasterBuilder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves danger scores from the memory-mapped hour-of-day raster.
+ * The raster file is replaced atomically (rebuild or an offline DangerRasterBuilder run);
+ * a change in its modification time remaps it and swaps the reference, so lookups never block.
+ */
+@Service
+public class DangerRasterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DangerRasterService.class);
+
+    private final EmbeddedDangerModel embeddedDangerModel;
+    private final Path rasterPath;
+    private final double cellDeg;
+    private final boolean buildIfMissing;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    private volatile DangerRaster raster;
+    private volatile FileTime loadedVersion;
+
+    public DangerRasterService(EmbeddedDangerModel embeddedDangerModel,
+                               @Value("${app.safety.raster.path:data/danger-raster.bin}") String rasterPath,
+                               @Value("${app.safety.raster.cell-deg:0.01}") double cellDeg,
+                               @Value("${app.safety.raster.build-if-missing:false}") boolean buildIfMissing) {
+        this.embeddedDangerModel = embeddedDangerModel;
+        this.rasterPath = Path.of(rasterPath);
+        this.cellDeg = cellDeg;
+        this.buildIfMissing = buildIfMissing;
+    }
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+        if (raster == null && buildIfMissing) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Raster score, or NaN when no raster is loaded or the point is outside it.
+     */
+    public double lookup(double lat, double lng, int hour) {
+        DangerRaster current = raster;
+        return current != null ? current.lookup(lat, lng, hour) : Double.NaN;
+    }
+
+    public boolean isLoaded() {
+        return raster != null;
+    }
+
+    /**
+     * Rebuild from the embedded model in the background. Returns false if a rebuild is already running.
+     */
+    public boolean rebuildAsync() {
+        if (!embeddedDangerModel.isReady()) {
+            throw new IllegalStateException("Embedded danger model is not loaded; cannot build raster");
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        CompletableFuture.runAsync(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                DangerRasterBuilder.buildAtomically(rasterPath, cellDeg, DangerRasterBuilder.DEFAULT_REGIONS,
+                        embeddedDangerModel::score);
+                logger.info("Danger raster rebuilt at {} in {} ms", rasterPath, System.currentTimeMillis() - start);
+                reloadIfChanged();
+            } catch (IOException ex) {
+                logger.error("Danger raster rebuild failed", ex);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Remap when the file on disk has a different modification time than the loaded one.
+     */
+    @Scheduled(fixedDelayString = "${app.safety.raster.reload-check-ms:30000}")
+    public synchronized void reloadIfChanged() {
+        try {
+            if (!Files.exists(rasterPath)) return;
+            FileTime modified = Files.getLastModifiedTime(rasterPath);
+            if (modified.equals(loadedVersion)) return;
+            raster = DangerRaster.map(rasterPath);
+            loadedVersion = modified;
+            logger.info("Danger raster mapped from {} ({} bytes)", rasterPath, Files.size(rasterPath));
+        } catch (IOException ex) {
+            logger.warn("Could not map danger raster {}: {}", rasterPath, ex.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("loaded", raster != null);
+        status.put("path", rasterPath.toString());
+        status.put("version", loadedVersion != null ? loadedVersion.toString() : null);
+        status.put("rebuilding", rebuilding.get());
+        return status;
+    }
+}
@@ -3,8 +3,11 @@ package com.safarsathi.service;
 import com.safarsathi.dto.*;
 import com.safarsathi.entity.*;
 import com.safarsathi.repository.*;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -12,45 +15,72 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class DashboardService {
 
     private final TouristRepository touristRepository;
-    private final AlertRepository alertRepository;
     private final PoliceDepartmentRepository policeDepartmentRepository;
     private final RiskZoneService riskZoneService;
     private final BlockchainService blockchainService;
     private final AlertService alertService;
+    private final TouristDirectoryService touristDirectoryService;
+    private final JurisdictionService jurisdictionService;
+    private final MongoTemplate mongoTemplate;
+    private final SafetyScoreEngine safetyScoreEngine;
+    private final int dashboardTouristLimit;
+
+    public DashboardService(TouristRepository touristRepository,
+                            PoliceDepartmentRepository policeDepartmentRepository,
+                            RiskZoneService riskZoneService,
+                            BlockchainService blockchainService,
+                            AlertService alertService,
+                            TouristDirectoryService touristDirectoryService,
+                            JurisdictionService jurisdictionService,
+                            MongoTemplate mongoTemplate,
+                            SafetyScoreEngine safetyScoreEngine,
+                            @Value("${app.dashboard.tourist-limit:200}") int dashboardTouristLimit) {
+        this.touristRepository = touristRepository;
+        this.policeDepartmentRepository = policeDepartmentRepository;
+        this.riskZoneService = riskZoneService;
+        this.blockchainService = blockchainService;
+        this.alertService = alertService;
+        this.touristDirectoryService = touristDirectoryService;
+        this.jurisdictionService = jurisdictionService;
+        this.mongoTemplate = mongoTemplate;
+        this.safetyScoreEngine = safetyScoreEngine;
+        this.dashboardTouristLimit = dashboardTouristLimit;
+    }
 
     /**
      * Admin dashboard aggregated state.
+     * Tourist summaries are the most recently seen page of the directory; counts come from the database.
      */
     public AdminDashboardResponse getAdminDashboardState() {
-        List<Alert> allAlerts = alertRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
-        List<Tourist> allTourists = touristRepository.findAll();
-        List<PoliceDepartment> allDepts = policeDepartmentRepository.findAll();
-
-        List<Alert> recentAlerts = allAlerts.size() > 50 ? allAlerts.subList(0, 50) : allAlerts;
-        Map<String, Tourist> touristLookup = allTourists.stream()
-                .collect(Collectors.toMap(Tourist::getId, t -> t, (a, b) -> a));
-
-        Map<String, List<Alert>> alertsByTourist = new HashMap<>();
-        for (Alert alert : recentAlerts) {
-            if (alert.getTouristId() != null) {
-                alertsByTourist.computeIfAbsent(alert.getTouristId(), k -> new ArrayList<>()).add(alert);
-            }
-        }
+        return buildAdminDashboardState(null);
+    }
+
+    /**
+     * Admin dashboard computed only over the given department's jurisdiction.
+     */
+    public AdminDashboardResponse getAdminDashboardState(String departmentId) {
+        return buildAdminDashboardState(jurisdictionService.resolve(departmentId));
+    }
+
+    private AdminDashboardResponse buildAdminDashboardState(Jurisdiction jurisdiction) {
+
+        List<Alert> recentAlerts = alertService.getRecentAlerts(jurisdiction, 50);
+        List<PoliceDepartment> allDepts = jurisdiction == null
+                ? policeDepartmentRepository.findAll()
+                : mongoTemplate.find(new Query(jurisdiction.toCriteria("location")), PoliceDepartment.class);
+
+        Map<String, String> touristNames = findTouristNames(recentAlerts);
 
         List<AlertView> alertViews = recentAlerts.stream()
-                .map(a -> toAlertView(a, touristLookup.get(a.getTouristId())))
+                .map(a -> toAlertView(a, touristNames.get(a.getTouristId())))
                 .sorted(Comparator.comparing(AlertView::getTimestamp, Comparator.reverseOrder()))
                 .collect(Collectors.toList());
 
-        List<TouristSummary> touristSummaries = allTourists.stream()
-                .map(t -> toTouristSummary(t, alertsByTourist.getOrDefault(t.getId(), List.of())))
-                .sorted(Comparator.comparing(s -> s.getLastPing() != null ? s.getLastPing() : "",
-                        Comparator.reverseOrder()))
-                .collect(Collectors.toList());
+        List<TouristSummary> touristSummaries = touristDirectoryService.search(
+                TouristDirectoryQuery.builder().limit(dashboardTouristLimit).build(), jurisdiction).getItems();
 
         long criticalAlerts = alertViews.stream()
                 .filter(a -> "critical".equals(a.getPriority()) && isAlertActive(a.getStatus()))
@@ -58,9 +88,12 @@ public class DashboardService {
         long activeAlerts = alertViews.stream()
                 .filter(a -> isAlertActive(a.getStatus()))
                 .count();
-        long monitoredTourists = touristSummaries.stream()
-                .filter(s -> !"safe".equals(s.getStatus()))
-                .count();
+        long monitoredTourists =
+                touristDirectoryService.count(TouristDirectoryQuery.builder().status("warning").build(), jurisdiction)
+                + touristDirectoryService.count(TouristDirectoryQuery.builder().status("sos").build(), jurisdiction);
+        long totalTourists = jurisdiction == null
+                ? touristRepository.count()
+                : touristDirectoryService.count(new TouristDirectoryQuery(), jurisdiction);
 
         List<ResponseUnitView> responseUnits = allDepts.stream()
                 .map(this::toResponseUnit)
@@ -71,7 +104,7 @@ public class DashboardService {
                         .criticalAlerts(criticalAlerts)
                         .activeAlerts(activeAlerts)
                         .monitoredTourists(monitoredTourists)
-                        .totalTourists(allTourists.size())
+                        .totalTourists(totalTourists)
                         .build())
                 .alerts(alertViews)
                 .tourists(touristSummaries)
@@ -90,7 +123,7 @@ public class DashboardService {
         List<RiskZone> activeRiskZones = riskZoneService.listActiveRiskZones();
         List<BlockchainLog> bcLogs = blockchainService.getRecentLogs(touristId, 10);
 
-        double safetyScore = tourist.getSafetyScore() != null ? tourist.getSafetyScore() : 100.0;
+        double safetyScore = safetyScoreEngine.currentScore(tourist);
 
         List<TouristDashboardResponse.TouristAlertView> alertViews = touristAlerts.stream()
                 .map(this::toTouristAlertView)
@@ -121,6 +154,8 @@ public class DashboardService {
                 .medicalConditions(tourist.getMedicalConditions())
                 .safetyScore(safetyScore)
                 .idHash(tourist.getIdHash())
+                .idCredential(tourist.getIdCredential())
+                .idStatus(tourist.getIdStatus())
                 .build();
 
         List<TouristDashboardResponse.RiskZoneView> riskZoneViews = activeRiskZones.stream()
@@ -148,7 +183,7 @@ public class DashboardService {
                 .lastLocation(TouristDashboardResponse.LastLocation.builder()
                         .lat(tourist.getCurrentLat())
                         .lng(tourist.getCurrentLng())
-                        .lastSeen(tourist.getLastSeen())
+                        .lastSeen(tourist.getLastSeen() != null ? tourist.getLastSeen().toString() : null)
                         .build())
                 .riskZones(riskZoneViews)
                 .openAlerts((int) openAlerts)
@@ -158,11 +193,25 @@ public class DashboardService {
 
     // --- Mapping helpers ---
 
-    private AlertView toAlertView(Alert alert, Tourist tourist) {
+    private Map<String, String> findTouristNames(List<Alert> alerts) {
+        Set<String> ids = alerts.stream()
+                .map(Alert::getTouristId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) return Map.of();
+
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("name");
+        return mongoTemplate.find(query, Tourist.class).stream()
+                .filter(t -> t.getName() != null)
+                .collect(Collectors.toMap(Tourist::getId, Tourist::getName, (a, b) -> a));
+    }
+
+    private AlertView toAlertView(Alert alert, String touristName) {
         return AlertView.builder()
                 .id(alert.getAlertId())
                 .touristId(alert.getTouristId())
-                .touristName(tourist != null ? tourist.getName() : "Unknown")
+                .touristName(touristName != null ? touristName : "Unknown")
                 .alertType(alert.getAlertType())
                 .priority(derivePriority(alert))
                 .status(alert.getStatus())
@@ -174,26 +223,6 @@ public class DashboardService {
                 .build();
     }
 
-    private TouristSummary toTouristSummary(Tourist tourist, List<Alert> alertsForTourist) {
-        double safetyScore = tourist.getSafetyScore() != null ? tourist.getSafetyScore() : 100.0;
-        List<TouristDashboardResponse.TouristAlertView> alertViews = alertsForTourist.stream()
-                .map(this::toTouristAlertView)
-                .collect(Collectors.toList());
-
-        String status = deriveTouristStatus(safetyScore, alertViews);
-
-        return TouristSummary.builder()
-                .id(tourist.getId())
-                .name(tourist.getName())
-                .status(status)
-                .safetyScore(safetyScore)
-                .lastPing(tourist.getLastSeen())
-                .lat(tourist.getCurrentLat())
-                .lng(tourist.getCurrentLng())
-                .lastKnownArea(buildLastKnownArea(tourist.getCurrentLat(), tourist.getCurrentLng()))
-                .build();
-    }
-
     private ResponseUnitView toResponseUnit(PoliceDepartment dept) {
         String status = Boolean.TRUE.equals(dept.getIsActive()) ? "available" : "offline";
         String type = dept.getDepartmentCode() != null &&
@@ -262,9 +291,4 @@ public class DashboardService {
     private boolean isAlertActive(String status) {
         return status == null || !"RESOLVED".equalsIgnoreCase(status);
     }
-
-    private String buildLastKnownArea(Double lat, Double lng) {
-        if (lat == null || lng == null) return "Unknown";
-        return String.format("%.4f, %.4f", lat, lng);
-    }
 }
@@ -0,0 +1,91 @@
+package com.safarsathi.service;
+
+import com.safarsathi.util.IncidentDataset;
+import com.safarsathi.util.IncidentDataset.Incident;
+import com.safarsathi.util.KernelDangerModel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * In-process danger-score model built at startup from the incident dataset
+ * (prebuilt binary by default, or the training CSV). Scores without a network hop.
+ */
+@Component
+public class EmbeddedDangerModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedDangerModel.class);
+
+    private final ResourceLoader resourceLoader;
+    private final String datasetLocation;
+    private final double bandwidthKm;
+    private final double bandwidthHours;
+    private final double priorWeight;
+
+    private volatile KernelDangerModel model;
+
+    public EmbeddedDangerModel(ResourceLoader resourceLoader,
+                               @Value("${app.safety.model.dataset:classpath:model/incidents.bin}") String datasetLocation,
+                               @Value("${app.safety.model.bandwidth-km:1.5}") double bandwidthKm,
+                               @Value("${app.safety.model.bandwidth-hours:1.5}") double bandwidthHours,
+                               @Value("${app.safety.model.prior-weight:0.1}") double priorWeight) {
+        this.resourceLoader = resourceLoader;
+        this.datasetLocation = datasetLocation;
+        this.bandwidthKm = bandwidthKm;
+        this.bandwidthHours = bandwidthHours;
+        this.priorWeight = priorWeight;
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            List<Incident> incidents = loadIncidents();
+            model = build(incidents);
+            logger.info("Embedded danger model loaded {} incidents from {}", incidents.size(), datasetLocation);
+        } catch (IOException ex) {
+            logger.warn("Embedded danger model unavailable ({}): {}", datasetLocation, ex.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return model != null;
+    }
+
+    public double score(double lat, double lng, int hour) {
+        KernelDangerModel current = model;
+        if (current == null) {
+            throw new IllegalStateException("Embedded danger model is not loaded");
+        }
+        return current.score(lat, lng, hour);
+    }
+
+    /**
+     * Read the configured dataset; ".csv" locations are parsed as CSV, anything else as the binary format.
+     */
+    public List<Incident> loadIncidents() throws IOException {
+        Resource resource = resourceLoader.getResource(datasetLocation);
+        if (!resource.exists()) {
+            throw new IOException("dataset not found");
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return datasetLocation.toLowerCase().endsWith(".csv")
+                    ? IncidentDataset.readCsv(in)
+                    : IncidentDataset.readBinary(in);
+        }
+    }
+
+    /**
+     * Build a model with the configured bandwidths over the given incidents.
+     */
+    public KernelDangerModel build(List<Incident> incidents) {
+        return new KernelDangerModel(incidents, bandwidthKm, bandwidthHours, priorWeight, 0.0);
+    }
+}
@@ -0,0 +1,241 @@
+package com.safarsathi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safarsathi.dto.HeatMapCell;
+import com.safarsathi.dto.HeatMapResponse;
+import com.safarsathi.entity.Alert;
+import com.safarsathi.entity.Tourist;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Tourist and open-alert density for the admin map, aggregated into a lat/lng grid whose cell size
+ * follows the map zoom (roughly 64px per cell). Counts are grouped in MongoDB over the indexed
+ * coordinates and cached per cell for a short TTL, so the payload scales with visible cells.
+ * A jurisdiction is applied in the match stage ($geoWithin on the GeoJSON location), so cells on
+ * its boundary count only what lies inside; cached cells are keyed by jurisdiction.
+ */
+@Service
+public class HeatMapService {
+
+    private static final String RESOLVED_STATUS = "RESOLVED";
+    private static final String SOS_ALERT_TYPE = "SOS";
+    private static final int MIN_ZOOM = 2;
+    private static final int MAX_ZOOM = 18;
+    private static final int CELLS_PER_TILE = 4;
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxCells;
+    private final Cache<String, CellCounts> cellCache;
+
+    public HeatMapService(MongoTemplate mongoTemplate,
+                          @Value("${app.heatmap.cache-ttl-seconds:15}") long cacheTtlSeconds,
+                          @Value("${app.heatmap.cache-max-cells:100000}") long cacheMaxCells,
+                          @Value("${app.heatmap.max-cells:4096}") int maxCells) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxCells = maxCells;
+        this.cellCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(cacheMaxCells)
+                .build();
+    }
+
+    /**
+     * Density cells for a bounding box at a map zoom level, restricted to a jurisdiction (null = state-wide).
+     * Only non-empty cells are returned.
+     */
+    public HeatMapResponse getHeatMap(double minLat, double maxLat, double minLng, double maxLng,
+                                      int zoom, Jurisdiction jurisdiction) {
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new IllegalArgumentException("minLat/minLng must not exceed maxLat/maxLng");
+        }
+        if (minLat < -90 || maxLat > 90 || minLng < -180 || maxLng > 180) {
+            throw new IllegalArgumentException("Bounding box is outside valid coordinates");
+        }
+        int z = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+        double cellSize = cellSize(z);
+
+        long rowMin = row(minLat, cellSize), rowMax = row(maxLat, cellSize);
+        long colMin = col(minLng, cellSize), colMax = col(maxLng, cellSize);
+        if ((rowMax - rowMin + 1) * (colMax - colMin + 1) > maxCells) {
+            throw new IllegalArgumentException("Bounding box covers too many cells at this zoom; zoom in");
+        }
+
+        String scope = scopeKey(jurisdiction);
+        Map<String, CellCounts> visible = new HashMap<>();
+        long missRowMin = Long.MAX_VALUE, missRowMax = Long.MIN_VALUE;
+        long missColMin = Long.MAX_VALUE, missColMax = Long.MIN_VALUE;
+        for (long r = rowMin; r <= rowMax; r++) {
+            for (long c = colMin; c <= colMax; c++) {
+                String key = cellKey(z, r, c);
+                CellCounts counts = cellCache.getIfPresent(scope + key);
+                if (counts != null) {
+                    visible.put(key, counts);
+                } else {
+                    missRowMin = Math.min(missRowMin, r);
+                    missRowMax = Math.max(missRowMax, r);
+                    missColMin = Math.min(missColMin, c);
+                    missColMax = Math.max(missColMax, c);
+                }
+            }
+        }
+        if (missRowMin <= missRowMax) {
+            visible.putAll(loadCells(z, cellSize, missRowMin, missRowMax, missColMin, missColMax, jurisdiction, scope));
+        }
+
+        List<HeatMapCell> cells = new ArrayList<>();
+        long totalTourists = 0, totalAlerts = 0;
+        for (Map.Entry<String, CellCounts> entry : visible.entrySet()) {
+            CellCounts counts = entry.getValue();
+            if (counts.isEmpty()) continue;
+            double centerLat = (counts.row + 0.5) * cellSize - 90;
+            double centerLng = (counts.col + 0.5) * cellSize - 180;
+
+            totalTourists += counts.tourists;
+            totalAlerts += counts.alerts;
+            cells.add(HeatMapCell.builder()
+                    .cell(entry.getKey())
+                    .lat(centerLat)
+                    .lng(centerLng)
+                    .tourists(counts.tourists)
+                    .alerts(counts.alerts)
+                    .sosAlerts(counts.sosAlerts)
+                    .avgSafetyScore(counts.avgSafetyScore)
+                    .build());
+        }
+
+        return HeatMapResponse.builder()
+                .zoom(z)
+                .cellSizeDeg(cellSize)
+                .totalTourists(totalTourists)
+                .totalAlerts(totalAlerts)
+                .cells(cells)
+                .build();
+    }
+
+    /**
+     * Aggregate the rectangle of uncached cells in one pass per collection and cache every cell in it,
+     * including empty ones so they are not re-queried until the TTL expires.
+     */
+    private Map<String, CellCounts> loadCells(int zoom, double cellSize,
+                                              long rowMin, long rowMax, long colMin, long colMax,
+                                              Jurisdiction jurisdiction, String scope) {
+        Map<String, CellCounts> loaded = new HashMap<>();
+        for (long r = rowMin; r <= rowMax; r++) {
+            for (long c = colMin; c <= colMax; c++) {
+                loaded.put(cellKey(zoom, r, c), new CellCounts(r, c));
+            }
+        }
+
+        double latFrom = rowMin * cellSize - 90, latTo = (rowMax + 1) * cellSize - 90;
+        double lngFrom = colMin * cellSize - 180, lngTo = (colMax + 1) * cellSize - 180;
+
+        Criteria touristMatch = Criteria.where("currentLat").gte(latFrom).lt(latTo)
+                .and("currentLng").gte(lngFrom).lt(lngTo);
+        Document touristGroup = new Document("$group", new Document("_id", gridId("$currentLat", "$currentLng", cellSize))
+                .append("count", new Document("$sum", 1))
+                .append("avgScore", new Document("$avg", "$safetyScore")));
+        for (Document doc : aggregate(Tourist.class, touristMatch, jurisdiction, touristGroup)) {
+            CellCounts counts = loaded.get(cellKey(zoom, doc.get("_id", Document.class)));
+            if (counts == null) continue;
+            counts.tourists = ((Number) doc.get("count")).longValue();
+            Number avg = (Number) doc.get("avgScore");
+            counts.avgSafetyScore = avg != null ? Math.round(avg.doubleValue() * 10) / 10.0 : null;
+        }
+
+        Criteria alertMatch = Criteria.where("latitude").gte(latFrom).lt(latTo)
+                .and("longitude").gte(lngFrom).lt(lngTo)
+                .and("status").ne(RESOLVED_STATUS);
+        Document alertGroup = new Document("$group", new Document("_id", gridId("$latitude", "$longitude", cellSize))
+                .append("count", new Document("$sum", 1))
+                .append("sos", new Document("$sum", new Document("$cond",
+                        List.of(new Document("$eq", List.of("$alertType", SOS_ALERT_TYPE)), 1, 0)))));
+        for (Document doc : aggregate(Alert.class, alertMatch, jurisdiction, alertGroup)) {
+            CellCounts counts = loaded.get(cellKey(zoom, doc.get("_id", Document.class)));
+            if (counts == null) continue;
+            counts.alerts = ((Number) doc.get("count")).longValue();
+            counts.sosAlerts = ((Number) doc.get("sos")).longValue();
+        }
+
+        loaded.forEach((key, counts) -> cellCache.put(scope + key, counts));
+        return loaded;
+    }
+
+    /**
+     * Run match + group through the template so the jurisdiction's $geoWithin criteria are mapped
+     * against the entity's GeoJSON location field.
+     */
+    private List<Document> aggregate(Class<?> entity, Criteria bbox, Jurisdiction jurisdiction, Document group) {
+        Criteria match = jurisdiction == null ? bbox
+                : new Criteria().andOperator(bbox, jurisdiction.toCriteria("location"));
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(match), context -> group);
+        return mongoTemplate.aggregate(aggregation, entity, Document.class).getMappedResults();
+    }
+
+    private static String scopeKey(Jurisdiction jurisdiction) {
+        if (jurisdiction == null) return "*|";
+        return jurisdiction.getAreas().stream()
+                .map(area -> area.getLat() + "," + area.getLng() + "," + area.getRadiusKm())
+                .collect(Collectors.joining(";", "", "|"));
+    }
+
+    private Document gridId(String latField, String lngField, double cellSize) {
+        return new Document("r", floorDiv(latField, 90, cellSize))
+                .append("c", floorDiv(lngField, 180, cellSize));
+    }
+
+    private Document floorDiv(String field, int offset, double cellSize) {
+        return new Document("$floor", new Document("$divide",
+                List.of(new Document("$add", List.of(field, offset)), cellSize)));
+    }
+
+    private static double cellSize(int zoom) {
+        return 360.0 / (1L << zoom) / CELLS_PER_TILE;
+    }
+
+    private static long row(double lat, double cellSize) {
+        return (long) Math.floor((lat + 90) / cellSize);
+    }
+
+    private static long col(double lng, double cellSize) {
+        return (long) Math.floor((lng + 180) / cellSize);
+    }
+
+    private static String cellKey(int zoom, long row, long col) {
+        return zoom + "/" + row + "/" + col;
+    }
+
+    private static String cellKey(int zoom, Document id) {
+        return cellKey(zoom, ((Number) id.get("r")).longValue(), ((Number) id.get("c")).longValue());
+    }
+
+    private static final class CellCounts {
+        private final long row;
+        private final long col;
+        private long tourists;
+        private long alerts;
+        private long sosAlerts;
+        private Double avgSafetyScore;
+
+        private CellCounts(long row, long col) {
+            this.row = row;
+            this.col = col;
+        }
+
+        private boolean isEmpty() {
+            return tourists == 0 && alerts == 0;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.safarsathi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.safarsathi.dto.IdVerificationResult;
+import com.safarsathi.entity.BlockchainLog;
+import com.safarsathi.entity.EvictedId;
+import com.safarsathi.entity.Tourist;
+import com.safarsathi.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checkpoint QR verification. Every issued ID hash is kept in a Bloom filter, so scans of unknown
+ * hashes are rejected without touching the database. Known hashes are resolved with one indexed,
+ * projected read of the tourist plus the ledger check, and the result is cached: verified IDs
+ * for a long time (a committed proof does not change), pending ones only until the next block.
+ * Evictions (account deletion) are written to evicted_ids and applied by every node's sync.
+ */
+@Service
+public class IdVerificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdVerificationService.class);
+    /**
+     * Issuance ids are reserved in blocks before the logs are written, so a lower id can appear
+     * after a higher one. Ids missing below the highest seen are re-read until they appear or are
+     * this old (ids reserved for records that were never written stay missing for good).
+     */
+    private static final long MISSING_ID_TTL_MS = Duration.ofMinutes(5).toMillis();
+    /** Larger jumps (e.g. a sequence reset) are not tracked id by id. */
+    private static final int MAX_TRACKED_GAP = 10_000;
+    /** Eviction markers are re-read this far back, covering clock skew and lookups in flight. */
+    private static final Duration EVICTION_OVERLAP = Duration.ofSeconds(60);
+
+    private final MongoTemplate mongoTemplate;
+    private final BlockchainService blockchainService;
+    private final long expectedIds;
+    private final double falsePositiveRate;
+    private final Duration verifiedTtl;
+    private final Cache<String, Optional<IdVerificationResult>> results;
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+    private volatile int lastLogId;
+    /** Missing log id -> when it was first found missing; only touched by sync and rebuild. */
+    private final NavigableMap<Integer, Long> missingLogIds = new TreeMap<>();
+    private volatile Instant lastEvictionAt = Instant.now();
+
+    public IdVerificationService(MongoTemplate mongoTemplate,
+                                 BlockchainService blockchainService,
+                                 @Value("${app.id-verification.expected-ids:1000000}") long expectedIds,
+                                 @Value("${app.id-verification.false-positive-rate:0.001}") double falsePositiveRate,
+                                 @Value("${app.id-verification.cache.max-size:50000}") long cacheSize,
+                                 @Value("${app.id-verification.cache.verified-ttl-seconds:600}") long verifiedTtlSeconds,
+                                 @Value("${app.id-verification.cache.unverified-ttl-seconds:5}") long unverifiedTtlSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.blockchainService = blockchainService;
+        this.expectedIds = expectedIds;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedIds, falsePositiveRate);
+        this.verifiedTtl = Duration.ofSeconds(verifiedTtlSeconds);
+        long verifiedTtl = TimeUnit.SECONDS.toNanos(verifiedTtlSeconds);
+        long unverifiedTtl = TimeUnit.SECONDS.toNanos(unverifiedTtlSeconds);
+        this.results = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, Optional<IdVerificationResult>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<IdVerificationResult> value, long currentTime) {
+                        return value.map(IdVerificationResult::isValid).orElse(false) ? verifiedTtl : unverifiedTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<IdVerificationResult> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<IdVerificationResult> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verify a scanned ID hash. Empty when no tourist holds it.
+     */
+    public Optional<IdVerificationResult> verify(String idHash) {
+        // Until the first load completes the filter would reject every ID, so fall through to the DB
+        if (loaded && !filter.mightContain(idHash)) {
+            rejected.incrementAndGet();
+            return Optional.empty();
+        }
+        return results.get(idHash, this::resolve);
+    }
+
+    /**
+     * Make a newly issued ID verifiable on this node immediately; other nodes pick it up on sync.
+     */
+    public void register(String idHash) {
+        filter.put(idHash);
+        inserted.incrementAndGet();
+        results.invalidate(idHash);
+    }
+
+    /**
+     * Drop a cached result (account deleted) here, and on other nodes at their next sync. The
+     * hash stays in the filter until the next rebuild, which only costs a DB miss.
+     */
+    public void evict(String idHash) {
+        if (idHash == null) return;
+        results.invalidate(idHash);
+        Instant now = Instant.now();
+        mongoTemplate.save(EvictedId.builder()
+                .id(idHash)
+                .evictedAt(now)
+                .expiresAt(now.plus(verifiedTtl).plus(EVICTION_OVERLAP))
+                .build());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Could not load issued ID hashes; will retry on the next sync", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.id-verification.sync-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public void sync() {
+        syncEvictions();
+        try {
+            if (!loaded || inserted.get() > expectedIds) {
+                rebuild();
+                return;
+            }
+            syncIssued();
+        } catch (RuntimeException e) {
+            logger.warn("Issued ID sync failed", e);
+        }
+    }
+
+    private void syncEvictions() {
+        try {
+            Query query = new Query(Criteria.where("evictedAt").gte(lastEvictionAt.minus(EVICTION_OVERLAP)));
+            query.fields().include("evictedAt");
+            Instant latest = lastEvictionAt;
+            for (EvictedId evicted : mongoTemplate.find(query, EvictedId.class)) {
+                results.invalidate(evicted.getId());
+                if (evicted.getEvictedAt() != null && evicted.getEvictedAt().isAfter(latest)) {
+                    latest = evicted.getEvictedAt();
+                }
+            }
+            lastEvictionAt = latest;
+        } catch (RuntimeException e) {
+            logger.warn("ID eviction sync failed", e);
+        }
+    }
+
+    private synchronized void syncIssued() {
+        long now = System.currentTimeMillis();
+        missingLogIds.values().removeIf(since -> now - since > MISSING_ID_TTL_MS);
+        Criteria newer = Criteria.where("logId").gt(lastLogId);
+        Query query = new Query(missingLogIds.isEmpty() ? newer
+                : new Criteria().orOperator(newer, Criteria.where("logId").in(missingLogIds.keySet())))
+                .with(Sort.by(Sort.Direction.ASC, "logId"));
+        query.fields().include("logId", "dataHash");
+        List<BlockchainLog> issued = mongoTemplate.find(query, BlockchainLog.class);
+
+        BloomFilter current = filter;
+        int highest = lastLogId;
+        for (BlockchainLog log : issued) {
+            if (log.getLogId() > highest + 1 && log.getLogId() - highest <= MAX_TRACKED_GAP) {
+                for (int gap = highest + 1; gap < log.getLogId(); gap++) missingLogIds.put(gap, now);
+            }
+            missingLogIds.remove(log.getLogId());
+            highest = Math.max(highest, log.getLogId());
+            if (log.getDataHash() == null) continue;
+            current.put(log.getDataHash());
+            inserted.incrementAndGet();
+        }
+        lastLogId = highest;
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "loaded", loaded,
+                "filterEntries", inserted.get(),
+                "rejectedWithoutLookup", rejected.get(),
+                "cachedResults", results.estimatedSize());
+    }
+
+    private synchronized void rebuild() {
+        Query latestLog = new Query().with(Sort.by(Sort.Direction.DESC, "logId")).limit(1);
+        latestLog.fields().include("logId");
+        BlockchainLog latest = mongoTemplate.findOne(latestLog, BlockchainLog.class);
+
+        Query hashes = new Query(Criteria.where("idHash").ne(null));
+        hashes.fields().include("idHash");
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedIds, mongoTemplate.count(hashes, Tourist.class) * 2),
+                falsePositiveRate);
+        long count = 0;
+        for (Tourist tourist : mongoTemplate.find(hashes, Tourist.class)) {
+            rebuilt.put(tourist.getIdHash());
+            count++;
+        }
+        // Issuances written while loading are re-read by the next incremental sync
+        filter = rebuilt;
+        inserted.set(count);
+        lastLogId = latest != null && latest.getLogId() != null ? latest.getLogId() : 0;
+        missingLogIds.clear();
+        loaded = true;
+    }
+
+    private Optional<IdVerificationResult> resolve(String idHash) {
+        Query query = new Query(Criteria.where("idHash").is(idHash));
+        query.fields().include("name", "passportNumber", "idExpiry", "idStatus");
+        Tourist tourist = mongoTemplate.findOne(query, Tourist.class);
+        if (tourist == null) return Optional.empty();
+
+        // Still in the issuance queue: no ledger record to read yet
+        BlockchainService.ProofStatus status = BlockchainService.ID_QUEUED.equals(tourist.getIdStatus())
+                || BlockchainService.ID_ISSUING.equals(tourist.getIdStatus())
+                ? BlockchainService.ProofStatus.PENDING
+                : blockchainService.verifyIDProof(idHash);
+        String passport = tourist.getPassportNumber();
+        return Optional.of(IdVerificationResult.builder()
+                .valid(status == BlockchainService.ProofStatus.ANCHORED)
+                .name(tourist.getName())
+                .passportPartial(passport != null && passport.length() >= 2 ? passport.substring(0, 2) + "****" : "")
+                .idExpiry(tourist.getIdExpiry())
+                .blockchainStatus(switch (status) {
+                    case ANCHORED -> "VERIFIED ON IMMUTABLE LOG";
+                    case PENDING -> "PENDING ANCHORING";
+                    case FAILED -> "PROOF FAILED";
+                })
+                .build());
+    }
+}
@@ -0,0 +1,167 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.Alert;
+import com.safarsathi.entity.Tourist;
+import com.safarsathi.repository.TouristRepository;
+import com.safarsathi.util.HierarchicalTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Raises INACTIVITY alerts for tourists who stop reporting.
+ * Every location fix re-arms a per-tourist deadline in a hierarchical timing wheel; a background
+ * tick expires due deadlines, so there is no periodic scan over the tourists collection. Each
+ * expiry is checked on a small worker pool, so the tick itself never waits on the database.
+ */
+@Service
+public class InactivityMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(InactivityMonitor.class);
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final AlertService alertService;
+    private final TouristRepository touristRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Duration threshold;
+    private final Duration recoveryLookback;
+    private final long tickMs;
+    private final HierarchicalTimingWheel<String> wheel;
+    private final ExecutorService expiryWorkers;
+
+    public InactivityMonitor(AlertService alertService,
+                             TouristRepository touristRepository,
+                             MongoTemplate mongoTemplate,
+                             @Value("${app.inactivity.threshold-minutes:30}") long thresholdMinutes,
+                             @Value("${app.inactivity.tick-ms:1000}") long tickMs,
+                             @Value("${app.inactivity.recovery-lookback-minutes:120}") long recoveryLookbackMinutes,
+                             @Value("${app.inactivity.workers:2}") int workers,
+                             @Value("${app.inactivity.queue-size:10000}") int queueSize) {
+        this.alertService = alertService;
+        this.touristRepository = touristRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.threshold = Duration.ofMinutes(thresholdMinutes);
+        this.recoveryLookback = Duration.ofMinutes(recoveryLookbackMinutes);
+        this.tickMs = tickMs;
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        AtomicInteger threads = new AtomicInteger();
+        this.expiryWorkers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "inactivity-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Re-arm the tourist's inactivity deadline after a location fix.
+     */
+    public void recordFix(String touristId, Instant seenAt) {
+        if (touristId == null || seenAt == null) return;
+        long deadline = seenAt.plus(threshold).toEpochMilli();
+        synchronized (wheel) {
+            wheel.schedule(touristId, deadline);
+        }
+    }
+
+    public void cancel(String touristId) {
+        synchronized (wheel) {
+            wheel.cancel(touristId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inactivity.tick-ms:1000}")
+    public void sweep() {
+        List<String> expired;
+        synchronized (wheel) {
+            expired = wheel.advanceTo(System.currentTimeMillis());
+        }
+        for (String touristId : expired) {
+            try {
+                expiryWorkers.execute(() -> {
+                    try {
+                        handleExpiry(touristId);
+                    } catch (Exception ex) {
+                        logger.warn("Inactivity check failed for tourist {}", touristId, ex);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Workers are backed up; check again on a later tick
+                synchronized (wheel) {
+                    wheel.schedule(touristId, System.currentTimeMillis() + tickMs);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild deadlines after a restart from the indexed lastSeen range
+     * [now - threshold - lookback, now]; deadlines already past fire on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverDeadlines() {
+        Instant from = Instant.now().minus(threshold).minus(recoveryLookback);
+        Query query = new Query(Criteria.where("lastSeen").gte(from));
+        query.fields().include("_id", "lastSeen");
+
+        int recovered = 0;
+        try (Stream<Tourist> tourists = mongoTemplate.stream(query, Tourist.class)) {
+            for (Tourist tourist : (Iterable<Tourist>) tourists::iterator) {
+                recordFix(tourist.getId(), tourist.getLastSeen());
+                recovered++;
+            }
+        }
+        logger.info("Recovered {} inactivity deadlines from lastSeen.", recovered);
+    }
+
+    /**
+     * The wheel only knows about fixes seen by this node, so confirm against the stored lastSeen
+     * before alerting. The alert is keyed on the silence's lastSeen, so when several nodes expire
+     * the same tourist only the first insert succeeds.
+     */
+    private void handleExpiry(String touristId) {
+        Tourist tourist = touristRepository.findById(touristId).orElse(null);
+        if (tourist == null || tourist.getLastSeen() == null) return;
+
+        Instant deadline = tourist.getLastSeen().plus(threshold);
+        if (deadline.isAfter(Instant.now())) {
+            recordFix(touristId, tourist.getLastSeen());
+            return;
+        }
+
+        long minutesSince = Duration.between(tourist.getLastSeen(), Instant.now()).toMinutes();
+        Alert alert = Alert.builder()
+                .touristId(touristId)
+                .alertType("INACTIVITY")
+                .dedupKey("INACTIVITY|" + touristId + "|" + tourist.getLastSeen().toEpochMilli())
+                .latitude(tourist.getCurrentLat())
+                .longitude(tourist.getCurrentLng())
+                .message(String.format("Tourist has not sent a location update in %d minutes.", minutesSince))
+                .build();
+        try {
+            alertService.createAlert(alert);
+        } catch (DuplicateKeyException e) {
+            // Another node already alerted for this silence
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.safarsathi.service;
+
+import com.safarsathi.util.GeoFenceUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+/**
+ * The area a police department is responsible for: a union of circles around station coordinates.
+ * A null Jurisdiction means state-wide (unscoped) access.
+ */
+@Data
+@AllArgsConstructor
+public class Jurisdiction {
+
+    public static final String SCOPE_NONE = "NONE";
+
+    private String scope;
+    private List<Area> areas;
+
+    /**
+     * A jurisdiction covering nothing, for departments whose area cannot be resolved.
+     */
+    public static Jurisdiction none() {
+        return new Jurisdiction(SCOPE_NONE, List.of());
+    }
+
+    /**
+     * $geoWithin/$centerSphere criteria against a 2dsphere-indexed GeoJSON field.
+     */
+    public Criteria toCriteria(String locationField) {
+        if (areas.isEmpty()) {
+            // Matches no document
+            return Criteria.where(locationField).in(List.of());
+        }
+        if (areas.size() == 1) {
+            return Criteria.where(locationField).withinSphere(areas.get(0).toCircle());
+        }
+        Criteria[] branches = areas.stream()
+                .map(area -> Criteria.where(locationField).withinSphere(area.toCircle()))
+                .toArray(Criteria[]::new);
+        return new Criteria().orOperator(branches);
+    }
+
+    public boolean contains(Double lat, Double lng) {
+        if (lat == null || lng == null) return false;
+        return areas.stream().anyMatch(area ->
+                GeoFenceUtil.isPointWithinRadius(lat, lng, area.getLat(), area.getLng(), area.getRadiusKm() * 1000));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Area {
+        private double lat;
+        private double lng;
+        private double radiusKm;
+
+        Circle toCircle() {
+            return new Circle(new Point(lng, lat), new Distance(radiusKm, Metrics.KILOMETERS));
+        }
+    }
+}
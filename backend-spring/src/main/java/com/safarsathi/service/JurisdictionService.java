@@ -0,0 +1,67 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.PoliceDepartment;
+import com.safarsathi.repository.PoliceDepartmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Resolves the logged-in department's jurisdiction for scoped admin views.
+ */
+@Service
+public class JurisdictionService {
+
+    public static final String SCOPE_STATE = "STATE";
+    public static final String SCOPE_DISTRICT = "DISTRICT";
+    public static final String SCOPE_RADIUS = "RADIUS";
+
+    private final PoliceDepartmentRepository policeDepartmentRepository;
+    private final double defaultRadiusKm;
+
+    public JurisdictionService(PoliceDepartmentRepository policeDepartmentRepository,
+                               @Value("${app.jurisdiction.default-radius-km:15}") double defaultRadiusKm) {
+        this.policeDepartmentRepository = policeDepartmentRepository;
+        this.defaultRadiusKm = defaultRadiusKm;
+    }
+
+    /**
+     * Returns the department's jurisdiction, or null for state-wide access. Fails closed: an
+     * unknown department, or one whose area cannot be placed, gets a jurisdiction matching nothing;
+     * only an explicit (or control-centre) STATE scope sees everything.
+     */
+    public Jurisdiction resolve(String departmentId) {
+        if (departmentId == null) return Jurisdiction.none();
+        PoliceDepartment dept = policeDepartmentRepository.findById(departmentId).orElse(null);
+        if (dept == null) return Jurisdiction.none();
+
+        String scope = resolveScope(dept);
+        if (SCOPE_STATE.equals(scope)) return null;
+
+        if (SCOPE_DISTRICT.equals(scope) && dept.getDistrict() != null) {
+            List<Jurisdiction.Area> areas = policeDepartmentRepository
+                    .findByDistrictAndIsActiveTrue(dept.getDistrict()).stream()
+                    .filter(d -> d.getLatitude() != null && d.getLongitude() != null)
+                    .map(this::toArea)
+                    .toList();
+            if (!areas.isEmpty()) return new Jurisdiction(SCOPE_DISTRICT, areas);
+        }
+
+        if (dept.getLatitude() == null || dept.getLongitude() == null) return Jurisdiction.none();
+        return new Jurisdiction(SCOPE_RADIUS, List.of(toArea(dept)));
+    }
+
+    private String resolveScope(PoliceDepartment dept) {
+        if (dept.getJurisdictionScope() != null) return dept.getJurisdictionScope().toUpperCase();
+        boolean controlCenter = dept.getDepartmentCode() != null
+                && dept.getDepartmentCode().toUpperCase().contains("CONTROL");
+        return controlCenter ? SCOPE_STATE : SCOPE_RADIUS;
+    }
+
+    private Jurisdiction.Area toArea(PoliceDepartment dept) {
+        double radius = dept.getJurisdictionRadiusKm() != null && dept.getJurisdictionRadiusKm() > 0
+                ? dept.getJurisdictionRadiusKm() : defaultRadiusKm;
+        return new Jurisdiction.Area(dept.getLatitude(), dept.getLongitude(), radius);
+    }
+}
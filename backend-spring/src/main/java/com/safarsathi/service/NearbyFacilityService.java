@@ -0,0 +1,222 @@
+package com.safarsathi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safarsathi.dto.NearbyFacilitiesResponse;
+import com.safarsathi.dto.NearbyFacility;
+import com.safarsathi.entity.Hospital;
+import com.safarsathi.entity.PoliceDepartment;
+import com.safarsathi.repository.HospitalRepository;
+import com.safarsathi.repository.PoliceDepartmentRepository;
+import com.safarsathi.util.CoalescingRefresher;
+import com.safarsathi.util.GeohashUtil;
+import com.safarsathi.util.SphericalKdTree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * k-nearest police stations and hospitals, answered from in-memory k-d trees over the active
+ * facilities. Queries are snapped to a geohash cell so results can be cached (here and by clients)
+ * per cell. The trees are rebuilt in the background whenever a station or hospital is saved or
+ * deleted through a repository, and at most every refresh interval for other instances' edits.
+ * MongoTemplate updateFirst/updateMulti publish no mapping events, so code that changes facility
+ * location or activity that way must call invalidate() (credential-only updates need not).
+ */
+@Service
+public class NearbyFacilityService {
+
+    private final PoliceDepartmentRepository policeDepartmentRepository;
+    private final HospitalRepository hospitalRepository;
+    private final int cellPrecision;
+    private final int defaultK;
+    private final int maxK;
+    private final long refreshMillis;
+    private final long cacheSeconds;
+    private final Cache<String, NearbyFacilitiesResponse> responseCache;
+    private final CoalescingRefresher refresher = new CoalescingRefresher("nearby-facilities", this::reload);
+    private volatile Snapshot snapshot;
+
+    public NearbyFacilityService(PoliceDepartmentRepository policeDepartmentRepository,
+                                 HospitalRepository hospitalRepository,
+                                 @Value("${app.nearby.cell-precision:7}") int cellPrecision,
+                                 @Value("${app.nearby.default-k:5}") int defaultK,
+                                 @Value("${app.nearby.max-k:20}") int maxK,
+                                 @Value("${app.nearby.refresh-seconds:300}") long refreshSeconds,
+                                 @Value("${app.nearby.cache-seconds:300}") long cacheSeconds,
+                                 @Value("${app.nearby.cache-max-size:20000}") long cacheMaxSize) {
+        this.policeDepartmentRepository = policeDepartmentRepository;
+        this.hospitalRepository = hospitalRepository;
+        this.cellPrecision = Math.max(1, Math.min(GeohashUtil.MAX_PRECISION, cellPrecision));
+        this.defaultK = defaultK;
+        this.maxK = maxK;
+        this.refreshMillis = Duration.ofSeconds(refreshSeconds).toMillis();
+        this.cacheSeconds = cacheSeconds;
+        this.responseCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheSeconds))
+                .build();
+    }
+
+    public NearbyFacilitiesResponse nearestStations(double lat, double lng, Integer k) {
+        int resolvedK = resolveK(k);
+        String cell = encodeCell(lat, lng);
+        Snapshot current = current();
+        return responseCache.get(current.version + "|police|" + cell + "|" + resolvedK,
+                key -> respond(cell, resolvedK, center -> current.stations
+                        .nearest(center[0], center[1], resolvedK, null).stream()
+                        .map(n -> toView(n.item(), n.distanceMeters()))
+                        .toList()));
+    }
+
+    public NearbyFacilitiesResponse nearestHospitals(double lat, double lng, Integer k, boolean emergencyOnly) {
+        int resolvedK = resolveK(k);
+        String cell = encodeCell(lat, lng);
+        Snapshot current = current();
+        return responseCache.get(current.version + "|hospital|" + cell + "|" + resolvedK + "|" + emergencyOnly,
+                key -> respond(cell, resolvedK, center -> current.hospitals
+                        .nearest(center[0], center[1], resolvedK,
+                                emergencyOnly ? h -> Boolean.TRUE.equals(h.getEmergency()) : null).stream()
+                        .map(n -> toView(n.item(), n.distanceMeters()))
+                        .toList()));
+    }
+
+    /**
+     * How long clients may cache a response for the same cell.
+     */
+    public long getCacheSeconds() {
+        return cacheSeconds;
+    }
+
+    /**
+     * Rebuild the trees in the background; for facility writes that publish no mapping events.
+     */
+    public void invalidate() {
+        refresher.request();
+    }
+
+    @EventListener
+    public void onSave(AfterSaveEvent<?> event) {
+        if (event.getSource() instanceof PoliceDepartment || event.getSource() instanceof Hospital) {
+            invalidate();
+        }
+    }
+
+    @EventListener
+    public void onDelete(AfterDeleteEvent<?> event) {
+        if (event.getType() == PoliceDepartment.class || event.getType() == Hospital.class) {
+            invalidate();
+        }
+    }
+
+    private NearbyFacilitiesResponse respond(String cell, int k, Function<double[], List<NearbyFacility>> search) {
+        double[] center = GeohashUtil.center(cell);
+        return NearbyFacilitiesResponse.builder()
+                .cell(cell)
+                .lat(center[0])
+                .lng(center[1])
+                .k(k)
+                .results(search.apply(center))
+                .build();
+    }
+
+    private String encodeCell(double lat, double lng) {
+        if (!Double.isFinite(lat) || !Double.isFinite(lng) || lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("lat must be within [-90, 90] and lng within [-180, 180]");
+        }
+        return GeohashUtil.encode(lat, lng, cellPrecision);
+    }
+
+    private int resolveK(Integer k) {
+        if (k == null) return defaultK;
+        if (k <= 0) throw new IllegalArgumentException("k must be positive");
+        return Math.min(k, maxK);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = load(0);
+                }
+                return snapshot;
+            }
+        }
+        if (System.currentTimeMillis() - current.builtAt >= refreshMillis && !refresher.isRunning()) {
+            refresher.request();
+        }
+        return current;
+    }
+
+    private void reload() {
+        Snapshot previous = snapshot;
+        snapshot = load(previous != null ? previous.version + 1 : 0);
+        // Cached responses are keyed by version; drop the old generation
+        responseCache.invalidateAll();
+    }
+
+    private Snapshot load(long version) {
+        List<PoliceDepartment> stations = policeDepartmentRepository.findAll().stream()
+                .filter(d -> !Boolean.FALSE.equals(d.getIsActive()))
+                .filter(d -> d.getLatitude() != null && d.getLongitude() != null)
+                .toList();
+        List<Hospital> hospitals = hospitalRepository.findByIsActiveTrue().stream()
+                .filter(h -> h.getLatitude() != null && h.getLongitude() != null)
+                .toList();
+        return new Snapshot(
+                new SphericalKdTree<>(stations, PoliceDepartment::getLatitude, PoliceDepartment::getLongitude),
+                new SphericalKdTree<>(hospitals, Hospital::getLatitude, Hospital::getLongitude),
+                version);
+    }
+
+    private static NearbyFacility toView(PoliceDepartment dept, double distanceMeters) {
+        return NearbyFacility.builder()
+                .id(dept.getId())
+                .name(dept.getName())
+                .type("police")
+                .latitude(dept.getLatitude())
+                .longitude(dept.getLongitude())
+                .distanceMeters(Math.round(distanceMeters))
+                .contact(dept.getContactNumber())
+                .city(dept.getCity())
+                .district(dept.getDistrict())
+                .state(dept.getState())
+                .build();
+    }
+
+    private static NearbyFacility toView(Hospital hospital, double distanceMeters) {
+        return NearbyFacility.builder()
+                .id(hospital.getId())
+                .name(hospital.getName())
+                .type(hospital.getType())
+                .latitude(hospital.getLatitude())
+                .longitude(hospital.getLongitude())
+                .distanceMeters(Math.round(distanceMeters))
+                .contact(hospital.getContact())
+                .emergency(hospital.getEmergency())
+                .city(hospital.getCity())
+                .district(hospital.getDistrict())
+                .state(hospital.getState())
+                .build();
+    }
+
+    private static final class Snapshot {
+        private final SphericalKdTree<PoliceDepartment> stations;
+        private final SphericalKdTree<Hospital> hospitals;
+        private final long version;
+        private final long builtAt = System.currentTimeMillis();
+
+        private Snapshot(SphericalKdTree<PoliceDepartment> stations, SphericalKdTree<Hospital> hospitals, long version) {
+            this.stations = stations;
+            this.hospitals = hospitals;
+            this.version = version;
+        }
+    }
+}
@@ -1,19 +1,54 @@
 package com.safarsathi.service;
 
 import com.safarsathi.entity.Notification;
+import com.safarsathi.entity.NotificationCounter;
 import com.safarsathi.repository.NotificationRepository;
-import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
+/**
+ * Tourist notifications. Every transition to or from unread is a conditional write, and the
+ * per-tourist unread counter moves by exactly the number of documents that changed. The counter
+ * write follows the notification write, so a crash between them (or an adjustment racing a
+ * recount) can leave it off; counters are recounted when first read, when found negative, and
+ * periodically once they are older than reconcile-after-hours.
+ */
 @Service
-@RequiredArgsConstructor
 public class NotificationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    private static final int RECOUNT_ATTEMPTS = 3;
+
     private final NotificationRepository notificationRepository;
     private final SequenceService sequenceService;
+    private final MongoTemplate mongoTemplate;
+    private final int reconcileBatch;
+    private final Duration reconcileAfter;
+
+    public NotificationService(NotificationRepository notificationRepository,
+                               SequenceService sequenceService,
+                               MongoTemplate mongoTemplate,
+                               @Value("${app.notifications.reconcile-batch:200}") int reconcileBatch,
+                               @Value("${app.notifications.reconcile-after-hours:24}") long reconcileAfterHours) {
+        this.notificationRepository = notificationRepository;
+        this.sequenceService = sequenceService;
+        this.mongoTemplate = mongoTemplate;
+        this.reconcileBatch = reconcileBatch;
+        this.reconcileAfter = Duration.ofHours(reconcileAfterHours);
+    }
 
     public List<Notification> getNotifications(String touristId) {
         return notificationRepository.findByTouristId(touristId,
@@ -21,21 +56,121 @@ public class NotificationService {
     }
 
     public Notification markAsRead(int notificationId) {
-        Notification notification = notificationRepository.findByNotificationId(notificationId)
-                .orElse(null);
-        if (notification == null) return null;
-        notification.setRead(true);
-        return notificationRepository.save(notification);
+        Notification before = mongoTemplate.findAndModify(
+                new Query(Criteria.where("notificationId").is(notificationId).and("read").is(false)),
+                new Update().set("read", true),
+                Notification.class);
+        if (before == null) {
+            // Unknown, or already read
+            return notificationRepository.findByNotificationId(notificationId).orElse(null);
+        }
+        adjustUnread(before.getTouristId(), -1);
+        before.setRead(true);
+        return before;
     }
 
+    /**
+     * Mark every unread notification of the tourist read in one multi-document update.
+     */
     public void markAllRead(String touristId) {
-        List<Notification> unread = notificationRepository.findByTouristIdAndReadFalse(touristId);
-        unread.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(unread);
+        long changed = mongoTemplate.updateMulti(
+                new Query(Criteria.where("touristId").is(touristId).and("read").is(false)),
+                new Update().set("read", true),
+                Notification.class).getModifiedCount();
+        adjustUnread(touristId, -changed);
+    }
+
+    /**
+     * Unread count for the badge: one read of the tourist's counter, recounting a counter that
+     * was never counted or has gone negative.
+     */
+    public long getUnreadCount(String touristId) {
+        NotificationCounter counter = mongoTemplate.findById(touristId, NotificationCounter.class);
+        if (counter != null && counter.getReconciledAt() != null && counter.getUnread() >= 0) {
+            return counter.getUnread();
+        }
+        return recount(touristId);
     }
 
     public Notification createNotification(Notification notification) {
         notification.setNotificationId((int) sequenceService.getNextId("notificationId"));
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        if (!Boolean.TRUE.equals(saved.getRead())) {
+            adjustUnread(saved.getTouristId(), 1);
+        }
+        return saved;
+    }
+
+    /**
+     * Remove a tourist's notifications and counter (account deletion).
+     */
+    public void deleteAll(String touristId) {
+        notificationRepository.deleteByTouristId(touristId);
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(touristId)), NotificationCounter.class);
+    }
+
+    /**
+     * Recount a batch of the counters least recently reconciled, so drift does not outlive
+     * reconcile-after-hours for long.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.reconcile-ms:300000}")
+    public void reconcileStale() {
+        Query stale = new Query(new Criteria().orOperator(
+                Criteria.where("reconciledAt").is(null),
+                Criteria.where("reconciledAt").lt(Instant.now().minus(reconcileAfter))))
+                .with(Sort.by(Sort.Direction.ASC, "reconciledAt"))
+                .limit(reconcileBatch);
+        stale.fields().include("_id");
+        try {
+            for (NotificationCounter counter : mongoTemplate.find(stale, NotificationCounter.class)) {
+                // Lost races are left for the next pass
+                reconcile(counter.getId());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Notification counter reconciliation failed", e);
+        }
+    }
+
+    /**
+     * Upserts, so an adjustment made while the counter is being created is never dropped; a
+     * counter created here is recounted on its first read.
+     */
+    private void adjustUnread(String touristId, long delta) {
+        if (touristId == null || delta == 0) return;
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(touristId)),
+                new Update().inc("unread", delta).inc("revision", 1), NotificationCounter.class);
+    }
+
+    private long recount(String touristId) {
+        for (int attempt = 0; attempt < RECOUNT_ATTEMPTS; attempt++) {
+            Long unread = reconcile(touristId);
+            if (unread != null) return unread;
+        }
+        // Under heavy churn serve the count directly and leave the counter for the next pass
+        return notificationRepository.countByTouristIdAndReadFalse(touristId);
+    }
+
+    /**
+     * Replace the counter with a count of the unread notifications, unless an adjustment moved
+     * it after it was read (the revision changed) or created it meanwhile. Returns the count, or
+     * null if the race was lost.
+     */
+    private Long reconcile(String touristId) {
+        NotificationCounter counter = mongoTemplate.findById(touristId, NotificationCounter.class);
+        long unread = notificationRepository.countByTouristIdAndReadFalse(touristId);
+        Instant now = Instant.now();
+        if (counter == null) {
+            try {
+                mongoTemplate.insert(new NotificationCounter(touristId, unread, 0, now));
+                return unread;
+            } catch (DuplicateKeyException e) {
+                return null;
+            }
+        }
+        long matched = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(touristId).and("revision").is(counter.getRevision())),
+                new Update().set("unread", unread).set("reconciledAt", now),
+                NotificationCounter.class).getMatchedCount();
+        return matched > 0 ? unread : null;
     }
 }
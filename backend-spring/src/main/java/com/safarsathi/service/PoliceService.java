@@ -2,9 +2,9 @@ package com.safarsathi.service;
 
 import com.safarsathi.entity.PoliceDepartment;
 import com.safarsathi.repository.PoliceDepartmentRepository;
+import com.safarsathi.security.PasswordHashingService;
 import com.safarsathi.util.HashUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,12 +16,12 @@ import java.util.UUID;
 public class PoliceService {
 
     private final PoliceDepartmentRepository policeDepartmentRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     public PoliceDepartment createPoliceDepartment(PoliceDepartment dept) {
         if (dept.getId() == null) dept.setId(UUID.randomUUID().toString());
         if (dept.getPasswordHash() != null) {
-            dept.setPasswordHash(passwordEncoder.encode(dept.getPasswordHash()));
+            dept.setPasswordHash(passwordHashingService.encode(dept.getPasswordHash()));
         }
         return policeDepartmentRepository.save(dept);
     }
@@ -49,6 +49,8 @@ public class PoliceService {
         if (updates.getState() != null) dept.setState(updates.getState());
         if (updates.getContactNumber() != null) dept.setContactNumber(updates.getContactNumber());
         if (updates.getIsActive() != null) dept.setIsActive(updates.getIsActive());
+        if (updates.getJurisdictionScope() != null) dept.setJurisdictionScope(updates.getJurisdictionScope());
+        if (updates.getJurisdictionRadiusKm() != null) dept.setJurisdictionRadiusKm(updates.getJurisdictionRadiusKm());
 
         return policeDepartmentRepository.save(dept);
     }
@@ -0,0 +1,192 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.RiskZone;
+import com.safarsathi.repository.RiskZoneRepository;
+import com.safarsathi.util.CoalescingRefresher;
+import com.safarsathi.util.GeoFenceUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory grid index over the active risk zones, so proximity checks touch only the zones whose
+ * bounding box overlaps the query cell instead of loading and scanning every zone per request.
+ * Rebuilt after zone changes (invalidate) and at most every refresh interval, for other instances' edits.
+ * Only the very first build is done inline; later rebuilds run in the background while lookups keep
+ * using the previous snapshot, so request threads never wait on the database.
+ */
+@Component
+public class RiskZoneIndex {
+
+    private static final double CELL_DEG = 0.05;
+    private static final double METERS_PER_DEG = 111_320.0;
+    private static final long MAX_CELLS_PER_ZONE = 4096;
+
+    private final RiskZoneRepository riskZoneRepository;
+    private final long refreshMillis;
+    private final CoalescingRefresher refresher;
+    private volatile Snapshot snapshot;
+
+    public RiskZoneIndex(RiskZoneRepository riskZoneRepository,
+                         @Value("${app.risk-zones.index-refresh-seconds:30}") long refreshSeconds) {
+        this.riskZoneRepository = riskZoneRepository;
+        this.refreshMillis = Duration.ofSeconds(refreshSeconds).toMillis();
+        this.refresher = new CoalescingRefresher("risk-zone-index",
+                () -> snapshot = new Snapshot(riskZoneRepository.findByActiveTrue()));
+    }
+
+    /**
+     * Active zones whose radius contains the point.
+     */
+    public List<RiskZone> zonesAt(double lat, double lng) {
+        List<RiskZone> matches = new ArrayList<>();
+        for (RiskZone zone : current().candidates(lat, lng)) {
+            if (GeoFenceUtil.isPointWithinRadius(lat, lng, zone.getCenterLat(), zone.getCenterLng(), zone.getRadiusMeters())) {
+                matches.add(zone);
+            }
+        }
+        return matches;
+    }
+
+    public boolean isInAnyZone(double lat, double lng) {
+        for (RiskZone zone : current().candidates(lat, lng)) {
+            if (GeoFenceUtil.isPointWithinRadius(lat, lng, zone.getCenterLat(), zone.getCenterLng(), zone.getRadiusMeters())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Zones whose bounding box overlaps the grid cell of the point (a superset of zonesAt).
+     */
+    public List<RiskZone> zonesNear(double lat, double lng) {
+        return current().candidates(lat, lng);
+    }
+
+    /**
+     * Zones whose bounding box overlaps any grid cell the straight (lat/lng-linear) segment passes
+     * through, each once; a superset of the zones the segment intersects.
+     */
+    public List<RiskZone> zonesAlong(double lat1, double lng1, double lat2, double lng2) {
+        return current().candidatesAlong(lat1, lng1, lat2, lng2);
+    }
+
+    /**
+     * Rebuild in the background after a zone change; a change during a rebuild triggers another.
+     */
+    public void invalidate() {
+        refresher.request();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = new Snapshot(riskZoneRepository.findByActiveTrue());
+                }
+                return snapshot;
+            }
+        }
+        if (System.currentTimeMillis() - current.builtAt >= refreshMillis && !refresher.isRunning()) {
+            refresher.request();
+        }
+        return current;
+    }
+
+    private static long cell(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEG);
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) ^ (col & 0xffffffffL);
+    }
+
+    private static final class Snapshot {
+        private final long builtAt = System.currentTimeMillis();
+        private final Map<Long, List<RiskZone>> cells = new HashMap<>();
+        /** Zones too large to bucket; checked on every lookup */
+        private final List<RiskZone> wide = new ArrayList<>();
+
+        private Snapshot(List<RiskZone> activeZones) {
+            for (RiskZone zone : activeZones) {
+                if (zone.getCenterLat() == null || zone.getCenterLng() == null || zone.getRadiusMeters() == null) continue;
+
+                double latDelta = zone.getRadiusMeters() / METERS_PER_DEG;
+                double cosLat = Math.max(0.01, Math.cos(Math.toRadians(zone.getCenterLat())));
+                double lngDelta = zone.getRadiusMeters() / (METERS_PER_DEG * cosLat);
+                long rowMin = cell(zone.getCenterLat() - latDelta), rowMax = cell(zone.getCenterLat() + latDelta);
+                long colMin = cell(zone.getCenterLng() - lngDelta), colMax = cell(zone.getCenterLng() + lngDelta);
+                if ((rowMax - rowMin + 1) * (colMax - colMin + 1) > MAX_CELLS_PER_ZONE) {
+                    wide.add(zone);
+                    continue;
+                }
+                for (long r = rowMin; r <= rowMax; r++) {
+                    for (long c = colMin; c <= colMax; c++) {
+                        cells.computeIfAbsent(key(r, c), k -> new ArrayList<>()).add(zone);
+                    }
+                }
+            }
+        }
+
+        private List<RiskZone> candidates(double lat, double lng) {
+            List<RiskZone> bucket = cells.getOrDefault(key(cell(lat), cell(lng)), List.of());
+            if (wide.isEmpty()) return bucket;
+            List<RiskZone> all = new ArrayList<>(bucket);
+            all.addAll(wide);
+            return all;
+        }
+
+        /**
+         * Walks the cells the segment crosses in order (Amanatides-Woo grid traversal), stepping
+         * whichever axis reaches its next cell boundary first.
+         */
+        private List<RiskZone> candidatesAlong(double lat1, double lng1, double lat2, double lng2) {
+            long row = cell(lat1), col = cell(lng1);
+            long endRow = cell(lat2), endCol = cell(lng2);
+            double dLat = lat2 - lat1, dLng = lng2 - lng1;
+            int stepRow = dLat > 0 ? 1 : -1;
+            int stepCol = dLng > 0 ? 1 : -1;
+            double tMaxRow = dLat == 0 ? Double.POSITIVE_INFINITY
+                    : ((row + (stepRow > 0 ? 1 : 0)) * CELL_DEG - lat1) / dLat;
+            double tMaxCol = dLng == 0 ? Double.POSITIVE_INFINITY
+                    : ((col + (stepCol > 0 ? 1 : 0)) * CELL_DEG - lng1) / dLng;
+            double tDeltaRow = dLat == 0 ? Double.POSITIVE_INFINITY : CELL_DEG / Math.abs(dLat);
+            double tDeltaCol = dLng == 0 ? Double.POSITIVE_INFINITY : CELL_DEG / Math.abs(dLng);
+
+            Set<RiskZone> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<RiskZone> found = new ArrayList<>();
+            addCell(row, col, seen, found);
+            while (row != endRow || col != endCol) {
+                // Rounding can disagree with the end cell; never step an axis past it
+                if (col == endCol || (row != endRow && tMaxRow < tMaxCol)) {
+                    row += stepRow;
+                    tMaxRow += tDeltaRow;
+                } else {
+                    col += stepCol;
+                    tMaxCol += tDeltaCol;
+                }
+                addCell(row, col, seen, found);
+            }
+            for (RiskZone zone : wide) {
+                if (seen.add(zone)) found.add(zone);
+            }
+            return found;
+        }
+
+        private void addCell(long row, long col, Set<RiskZone> seen, List<RiskZone> found) {
+            for (RiskZone zone : cells.getOrDefault(key(row, col), List.of())) {
+                if (seen.add(zone)) found.add(zone);
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class RiskZoneService {
 
     private final RiskZoneRepository riskZoneRepository;
     private final SequenceService sequenceService;
+    private final RiskZoneIndex riskZoneIndex;
 
     public List<RiskZone> listRiskZones() {
         return riskZoneRepository.findAll();
@@ -27,7 +28,9 @@ public class RiskZoneService {
         zone.setZoneId((int) sequenceService.getNextId("riskZoneId"));
         if (zone.getRiskLevel() == null) zone.setRiskLevel("MEDIUM");
         if (zone.getActive() == null) zone.setActive(true);
-        return riskZoneRepository.save(zone);
+        RiskZone saved = riskZoneRepository.save(zone);
+        riskZoneIndex.invalidate();
+        return saved;
     }
 
     public RiskZone updateRiskZone(int zoneId, RiskZone updates) {
@@ -43,7 +46,9 @@ public class RiskZoneService {
         if (updates.getRiskLevel() != null) zone.setRiskLevel(updates.getRiskLevel());
         if (updates.getActive() != null) zone.setActive(updates.getActive());
 
-        return riskZoneRepository.save(zone);
+        RiskZone saved = riskZoneRepository.save(zone);
+        riskZoneIndex.invalidate();
+        return saved;
     }
 
     public RiskZone toggleZoneStatus(int zoneId, boolean active) {
@@ -52,13 +57,16 @@ public class RiskZoneService {
 
         RiskZone zone = opt.get();
         zone.setActive(active);
-        return riskZoneRepository.save(zone);
+        RiskZone saved = riskZoneRepository.save(zone);
+        riskZoneIndex.invalidate();
+        return saved;
     }
 
     public boolean deleteRiskZone(int zoneId) {
         Optional<RiskZone> opt = riskZoneRepository.findByZoneId(zoneId);
         if (opt.isEmpty()) return false;
         riskZoneRepository.delete(opt.get());
+        riskZoneIndex.invalidate();
         return true;
     }
 }
@@ -0,0 +1,234 @@
+package com.safarsathi.service;
+
+import com.safarsathi.dto.RouteSafetyRequest;
+import com.safarsathi.dto.RouteSafetyResponse;
+import com.safarsathi.dto.SafetyCheckPoint;
+import com.safarsathi.entity.RiskZone;
+import com.safarsathi.util.GeoFenceUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Scores a route polyline: the route is cut into fixed-length segments scored at their midpoints
+ * (batch lookup against the raster / danger cache), and every risk zone the route crosses is
+ * reported with entry and exit distances. Zone crossings are computed per edge in parallel, using
+ * the zone grid index for candidates and an exact segment/circle intersection.
+ */
+@Service
+public class RouteSafetyService {
+
+    private static final double MIN_SPACING_METERS = 50.0;
+    private static final double METERS_PER_DEG = 111_320.0;
+
+    private final AISafetyService aiSafetyService;
+    private final RiskZoneIndex riskZoneIndex;
+    private final double defaultSpacingMeters;
+    private final int maxSegments;
+    private final int maxPolylinePoints;
+
+    public RouteSafetyService(AISafetyService aiSafetyService,
+                              RiskZoneIndex riskZoneIndex,
+                              @Value("${app.safety.route.spacing-meters:250}") double defaultSpacingMeters,
+                              @Value("${app.safety.route.max-segments:2000}") int maxSegments,
+                              @Value("${app.safety.route.max-points:5000}") int maxPolylinePoints) {
+        this.aiSafetyService = aiSafetyService;
+        this.riskZoneIndex = riskZoneIndex;
+        this.defaultSpacingMeters = defaultSpacingMeters;
+        this.maxSegments = maxSegments;
+        this.maxPolylinePoints = maxPolylinePoints;
+    }
+
+    public RouteSafetyResponse scoreRoute(RouteSafetyRequest request, int departureHour) {
+        return scoreRouteAsync(request, departureHour).join();
+    }
+
+    /**
+     * Validation errors are thrown synchronously (IllegalArgumentException); scoring completes the future.
+     */
+    public CompletableFuture<RouteSafetyResponse> scoreRouteAsync(RouteSafetyRequest request, int departureHour) {
+        List<SafetyCheckPoint> polyline = request.getPolyline();
+        if (polyline == null || polyline.size() < 2) {
+            throw new IllegalArgumentException("polyline must contain at least two points");
+        }
+        if (polyline.size() > maxPolylinePoints) {
+            throw new IllegalArgumentException("polyline may contain at most " + maxPolylinePoints + " points");
+        }
+        int n = polyline.size();
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            SafetyCheckPoint point = polyline.get(i);
+            if (point == null || point.getLat() == null || point.getLon() == null) {
+                throw new IllegalArgumentException("polyline[" + i + "] requires lat and lon");
+            }
+            if (!Double.isFinite(point.getLat()) || !Double.isFinite(point.getLon())) {
+                throw new IllegalArgumentException("polyline[" + i + "] lat and lon must be finite");
+            }
+            lats[i] = point.getLat();
+            lons[i] = point.getLon();
+        }
+
+        // cumulative[i] = distance from the start to vertex i
+        double[] cumulative = new double[n];
+        for (int i = 1; i < n; i++) {
+            cumulative[i] = cumulative[i - 1] + GeoFenceUtil.haversineMeters(lats[i - 1], lons[i - 1], lats[i], lons[i]);
+        }
+        double total = cumulative[n - 1];
+        if (total <= 0) {
+            throw new IllegalArgumentException("polyline has zero length");
+        }
+
+        Double requestedSpacing = request.getSpacingMeters();
+        if (requestedSpacing != null && !(Double.isFinite(requestedSpacing) && requestedSpacing > 0)) {
+            throw new IllegalArgumentException("spacingMeters must be a positive number");
+        }
+        double spacing = Math.max(MIN_SPACING_METERS, requestedSpacing != null ? requestedSpacing : defaultSpacingMeters);
+        if (Math.ceil(total / spacing) > maxSegments) {
+            spacing = total / maxSegments;
+        }
+        double resolvedSpacing = spacing;
+        CompletableFuture<List<RouteSafetyResponse.Segment>> segmentsFuture = scoreSegments(lats, lons, cumulative,
+                spacing, departureHour, request.getSpeedKmh());
+        // Zone crossings are in-memory work; compute them while the scores resolve
+        List<RouteSafetyResponse.ZoneCrossing> zones = findZoneCrossings(lats, lons, cumulative);
+
+        return segmentsFuture.thenApply(segments -> {
+            double max = 0, weighted = 0;
+            for (RouteSafetyResponse.Segment segment : segments) {
+                max = Math.max(max, segment.getDangerScore());
+                weighted += segment.getDangerScore() * (segment.getEndMeters() - segment.getStartMeters());
+            }
+
+            return RouteSafetyResponse.builder()
+                    .totalDistanceMeters(total)
+                    .spacingMeters(resolvedSpacing)
+                    .departureHour(departureHour)
+                    .maxDangerScore(max)
+                    .avgDangerScore(weighted / total)
+                    .segments(segments)
+                    .zones(zones)
+                    .build();
+        });
+    }
+
+    private CompletableFuture<List<RouteSafetyResponse.Segment>> scoreSegments(double[] lats, double[] lons, double[] cumulative,
+                                                            double spacing, int departureHour, Double speedKmh) {
+        double total = cumulative[cumulative.length - 1];
+        int count = (int) Math.ceil(total / spacing);
+        double[] midLats = new double[count];
+        double[] midLons = new double[count];
+        int[] hours = new int[count];
+
+        int edge = 0;
+        for (int k = 0; k < count; k++) {
+            double mid = (k * spacing + Math.min(total, (k + 1) * spacing)) / 2;
+            while (edge < cumulative.length - 2 && cumulative[edge + 1] < mid) edge++;
+            double edgeLength = cumulative[edge + 1] - cumulative[edge];
+            double t = edgeLength > 0 ? (mid - cumulative[edge]) / edgeLength : 0;
+            midLats[k] = lats[edge] + t * (lats[edge + 1] - lats[edge]);
+            midLons[k] = lons[edge] + t * (lons[edge + 1] - lons[edge]);
+            int hoursElapsed = speedKmh != null && speedKmh > 0 ? (int) (mid / 1000.0 / speedKmh) : 0;
+            hours[k] = (departureHour + hoursElapsed) % 24;
+        }
+
+        return aiSafetyService.getRealTimeSafetyScoresAsync(midLats, midLons, hours).thenApply(scores -> {
+            List<RouteSafetyResponse.Segment> segments = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                segments.add(RouteSafetyResponse.Segment.builder()
+                        .index(k)
+                        .startMeters(k * spacing)
+                        .endMeters(Math.min(total, (k + 1) * spacing))
+                        .lat(midLats[k])
+                        .lon(midLons[k])
+                        .hour(hours[k])
+                        .dangerScore(scores[k])
+                        .build());
+            }
+            return segments;
+        });
+    }
+
+    /**
+     * Intersect every edge with its candidate zones in parallel, then merge each zone's intervals
+     * that touch across edge boundaries into single crossings.
+     */
+    private List<RouteSafetyResponse.ZoneCrossing> findZoneCrossings(double[] lats, double[] lons, double[] cumulative) {
+        List<Crossing> raw = IntStream.range(0, lats.length - 1).parallel()
+                .mapToObj(i -> crossEdge(lats, lons, cumulative, i))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        raw.sort(Comparator.comparing((Crossing c) -> c.zone.getId()).thenComparingDouble(c -> c.entry));
+
+        List<Crossing> merged = new ArrayList<>();
+        for (Crossing crossing : raw) {
+            Crossing last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && last.zone.getId().equals(crossing.zone.getId()) && crossing.entry <= last.exit + 1.0) {
+                last.exit = Math.max(last.exit, crossing.exit);
+            } else {
+                merged.add(crossing);
+            }
+        }
+        merged.sort(Comparator.comparingDouble(c -> c.entry));
+
+        return merged.stream()
+                .map(c -> RouteSafetyResponse.ZoneCrossing.builder()
+                        .zoneId(c.zone.getZoneId())
+                        .name(c.zone.getName())
+                        .riskLevel(c.zone.getRiskLevel())
+                        .entryMeters(c.entry)
+                        .exitMeters(c.exit)
+                        .build())
+                .toList();
+    }
+
+    private List<Crossing> crossEdge(double[] lats, double[] lons, double[] cumulative, int i) {
+        double edgeLength = cumulative[i + 1] - cumulative[i];
+        if (edgeLength <= 0) return List.of();
+
+        List<RiskZone> candidates = riskZoneIndex.zonesAlong(lats[i], lons[i], lats[i + 1], lons[i + 1]);
+        if (candidates.isEmpty()) return List.of();
+
+        // Local equirectangular frame around the edge start, in meters
+        double metersPerDegLng = METERS_PER_DEG * Math.cos(Math.toRadians(lats[i]));
+        double dx = (lons[i + 1] - lons[i]) * metersPerDegLng;
+        double dy = (lats[i + 1] - lats[i]) * METERS_PER_DEG;
+        double a = dx * dx + dy * dy;
+        if (a == 0) return List.of();
+
+        List<Crossing> crossings = new ArrayList<>();
+        for (RiskZone zone : candidates) {
+            double fx = (lons[i] - zone.getCenterLng()) * metersPerDegLng;
+            double fy = (lats[i] - zone.getCenterLat()) * METERS_PER_DEG;
+            double r = zone.getRadiusMeters();
+            double b = 2 * (fx * dx + fy * dy);
+            double c = fx * fx + fy * fy - r * r;
+            double disc = b * b - 4 * a * c;
+            if (disc < 0) continue;
+            double sqrt = Math.sqrt(disc);
+            double t1 = Math.max(0, (-b - sqrt) / (2 * a));
+            double t2 = Math.min(1, (-b + sqrt) / (2 * a));
+            if (t1 >= t2) continue;
+            crossings.add(new Crossing(zone, cumulative[i] + t1 * edgeLength, cumulative[i] + t2 * edgeLength));
+        }
+        return crossings;
+    }
+
+    private static final class Crossing {
+        private final RiskZone zone;
+        private final double entry;
+        private double exit;
+
+        private Crossing(RiskZone zone, double entry, double exit) {
+            this.zone = zone;
+            this.entry = entry;
+            this.exit = exit;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.Alert;
+import com.safarsathi.entity.RiskZone;
+import com.safarsathi.entity.Tourist;
+import com.safarsathi.util.DecayingValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tourist safety scores: 100 minus a zone-entry penalty that recovers over time (half-life),
+ * the AI danger score at the current location, and a penalty per open alert.
+ * Scores live in memory and are evaluated on read; the tourists collection is written back
+ * in periodic batches, and only for tourists whose score moved into a different band (or who
+ * are being dropped as idle). The zone and danger components are persisted next to the score so
+ * a reloaded tourist resumes from them; open alerts are always re-read.
+ */
+@Service
+public class SafetyScoreEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SafetyScoreEngine.class);
+    private static final double MAX_SCORE = 100.0;
+    private static final String RESOLVED_STATUS = "RESOLVED";
+    private static final String SOS_ALERT_TYPE = "SOS";
+    /** Zone-entry alerts; the entry itself is scored by onZonesEntered, so they carry no penalty. */
+    private static final String ZONE_ALERT_TYPE = "RISK_ZONE";
+
+    private final MongoTemplate mongoTemplate;
+    private final AISafetyService aiSafetyService;
+    private final long halfLifeMs;
+    private final double dangerWeight;
+    private final double alertPenalty;
+    private final double sosPenalty;
+    private final double bandWidth;
+    private final long idleMs;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public SafetyScoreEngine(MongoTemplate mongoTemplate,
+                             AISafetyService aiSafetyService,
+                             @Value("${app.safety-score.half-life-minutes:60}") long halfLifeMinutes,
+                             @Value("${app.safety-score.danger-weight:30}") double dangerWeight,
+                             @Value("${app.safety-score.alert-penalty:10}") double alertPenalty,
+                             @Value("${app.safety-score.sos-penalty:25}") double sosPenalty,
+                             @Value("${app.safety-score.band-width:5}") double bandWidth,
+                             @Value("${app.safety-score.idle-minutes:360}") long idleMinutes) {
+        if (bandWidth <= 0) {
+            throw new IllegalArgumentException("app.safety-score.band-width must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.aiSafetyService = aiSafetyService;
+        this.halfLifeMs = Duration.ofMinutes(halfLifeMinutes).toMillis();
+        this.dangerWeight = dangerWeight;
+        this.alertPenalty = alertPenalty;
+        this.sosPenalty = sosPenalty;
+        this.bandWidth = bandWidth;
+        this.idleMs = Duration.ofMinutes(idleMinutes).toMillis();
+    }
+
+    /**
+     * Current score for a tourist, falling back to the persisted value when it is not tracked.
+     */
+    public double currentScore(Tourist tourist) {
+        State state = states.get(tourist.getId());
+        if (state != null) return state.score(System.currentTimeMillis());
+        return persistedScore(tourist);
+    }
+
+    /**
+     * The score as last flushed to the tourist document (quantised to band changes), which is
+     * what Mongo queries on safetyScore see; tourists never scored count as fully safe.
+     */
+    public static double persistedScore(Tourist tourist) {
+        return tourist.getSafetyScore() != null ? tourist.getSafetyScore() : MAX_SCORE;
+    }
+
+    /**
+     * Apply the entry penalty of each newly entered zone.
+     */
+    public void onZonesEntered(Tourist tourist, Collection<RiskZone> zones) {
+        double penalty = zones.stream().mapToDouble(SafetyScoreEngine::penaltyFor).sum();
+        if (penalty <= 0) return;
+        State state = stateFor(tourist);
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            state.zonePenalty.add(penalty, now);
+        }
+        state.touchedAt = now;
+    }
+
+    /**
+     * Refresh the location danger component after a fix. The score lookup is asynchronous and
+     * the component is updated when it resolves, so the location update never waits on it.
+     */
+    public void onLocation(Tourist tourist) {
+        if (tourist.getCurrentLat() == null || tourist.getCurrentLng() == null) return;
+        State state = stateFor(tourist);
+        state.touchedAt = System.currentTimeMillis();
+        aiSafetyService.getRealTimeSafetyScoreAsync(tourist.getCurrentLat(), tourist.getCurrentLng(),
+                        LocalDateTime.now().getHour())
+                .thenAccept(danger -> state.dangerPenalty = Math.max(0, Math.min(1, danger)) * dangerWeight)
+                .exceptionally(error -> {
+                    logger.debug("Danger score lookup failed for tourist {}", tourist.getId(), error);
+                    return null;
+                });
+    }
+
+    /**
+     * Track an alert's transition between open and resolved. Pass null for a new alert's previous status.
+     */
+    public void onAlertStatus(Alert alert, String previousStatus) {
+        if (alert.getTouristId() == null || ZONE_ALERT_TYPE.equalsIgnoreCase(alert.getAlertType())) return;
+        boolean wasOpen = previousStatus != null && !RESOLVED_STATUS.equalsIgnoreCase(previousStatus);
+        boolean isOpen = !RESOLVED_STATUS.equalsIgnoreCase(alert.getStatus());
+        if (wasOpen == isOpen) return;
+
+        State state = states.get(alert.getTouristId());
+        if (state == null) {
+            // Untracked tourists are loaded with their current open alerts, which already include this one
+            load(alert.getTouristId());
+            return;
+        }
+        double delta = SOS_ALERT_TYPE.equalsIgnoreCase(alert.getAlertType()) ? sosPenalty : alertPenalty;
+        synchronized (state) {
+            state.alertPenalty = Math.max(0, state.alertPenalty + (isOpen ? delta : -delta));
+        }
+        state.touchedAt = System.currentTimeMillis();
+    }
+
+    public void forget(String touristId) {
+        states.remove(touristId);
+    }
+
+    public int trackedCount() {
+        return states.size();
+    }
+
+    /**
+     * Write back scores that changed band since they were last persisted, and drop idle tourists
+     * (persisting their components so a later reload resumes where they left off).
+     */
+    @Scheduled(fixedDelayString = "${app.safety-score.flush-ms:30000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        BulkOperations bulk = null;
+        int writes = 0;
+        Map<String, State> idleStates = new HashMap<>();
+
+        for (Map.Entry<String, State> entry : states.entrySet()) {
+            State state = entry.getValue();
+            double score = state.score(now);
+            int band = band(score);
+            boolean idle = now - state.touchedAt > idleMs;
+            if (band != state.persistedBand || idle) {
+                if (bulk == null) bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Tourist.class);
+                double zonePenalty;
+                synchronized (state) {
+                    zonePenalty = state.zonePenalty.valueAt(now);
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(entry.getKey())),
+                        new Update()
+                                .set("safetyScore", Math.round(score * 10) / 10.0)
+                                .set("safetyZonePenalty", zonePenalty)
+                                .set("safetyZonePenaltyAt", Instant.ofEpochMilli(now))
+                                .set("safetyDangerPenalty", state.dangerPenalty));
+                state.persistedBand = band;
+                writes++;
+            }
+            if (idle) {
+                idleStates.put(entry.getKey(), state);
+            }
+        }
+
+        if (bulk == null) return;
+        try {
+            bulk.execute();
+            // Evict idle states only once their components are stored
+            idleStates.forEach(states::remove);
+            logger.debug("Persisted {} safety score band changes", writes);
+        } catch (RuntimeException e) {
+            // Force a retry on the next flush
+            states.values().forEach(state -> state.persistedBand = Integer.MIN_VALUE);
+            logger.warn("Safety score flush failed", e);
+        }
+    }
+
+    /**
+     * The Mongo reads for a new state happen outside the map, so they never block other tourists'
+     * updates; if two threads race, the first state stored wins.
+     */
+    private State stateFor(Tourist tourist) {
+        State state = states.get(tourist.getId());
+        if (state != null) return state;
+        State created = newState(tourist, tourist.getId());
+        State existing = states.putIfAbsent(tourist.getId(), created);
+        return existing != null ? existing : created;
+    }
+
+    private void load(String touristId) {
+        if (states.containsKey(touristId)) return;
+        Query query = new Query(Criteria.where("_id").is(touristId));
+        query.fields().include("safetyScore", "safetyZonePenalty", "safetyZonePenaltyAt", "safetyDangerPenalty");
+        Tourist tourist = mongoTemplate.findOne(query, Tourist.class);
+        states.putIfAbsent(touristId, newState(tourist, touristId));
+    }
+
+    /**
+     * Resume from the persisted components. A score persisted before components were stored
+     * cannot be split, so its deficit (less open alerts) stands in for the danger component until
+     * the next location fix recomputes it, rather than being counted again on top of it.
+     */
+    private State newState(Tourist persisted, String touristId) {
+        double stored = persisted != null ? persistedScore(persisted) : MAX_SCORE;
+        double alerts = openAlertPenalty(touristId);
+        long now = System.currentTimeMillis();
+        State state;
+        if (persisted != null && persisted.getSafetyZonePenaltyAt() != null) {
+            double zone = persisted.getSafetyZonePenalty() != null ? persisted.getSafetyZonePenalty() : 0;
+            state = new State(new DecayingValue(halfLifeMs, zone, persisted.getSafetyZonePenaltyAt().toEpochMilli()), now);
+            state.dangerPenalty = persisted.getSafetyDangerPenalty() != null ? persisted.getSafetyDangerPenalty() : 0;
+        } else {
+            state = new State(new DecayingValue(halfLifeMs, 0, now), now);
+            state.dangerPenalty = Math.max(0, MAX_SCORE - stored - alerts);
+        }
+        state.alertPenalty = alerts;
+        state.persistedBand = band(stored);
+        return state;
+    }
+
+    private double openAlertPenalty(String touristId) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("touristId").is(touristId),
+                Criteria.where("status").ne(RESOLVED_STATUS),
+                Criteria.where("alertType").ne(ZONE_ALERT_TYPE)));
+        query.fields().include("alertType");
+        return mongoTemplate.find(query, Alert.class).stream()
+                .mapToDouble(a -> SOS_ALERT_TYPE.equalsIgnoreCase(a.getAlertType()) ? sosPenalty : alertPenalty)
+                .sum();
+    }
+
+    private int band(double score) {
+        return (int) Math.floor(score / bandWidth);
+    }
+
+    static double penaltyFor(RiskZone zone) {
+        if (zone.getRiskLevel() == null) return 8.0;
+        return switch (zone.getRiskLevel()) {
+            case "LOW" -> 5.0;
+            case "MEDIUM" -> 10.0;
+            case "HIGH" -> 18.0;
+            default -> 8.0;
+        };
+    }
+
+    private static final class State {
+        private final DecayingValue zonePenalty;
+        private volatile double dangerPenalty;
+        private double alertPenalty;
+        private volatile long touchedAt;
+        private volatile int persistedBand;
+
+        private State(DecayingValue zonePenalty, long now) {
+            this.zonePenalty = zonePenalty;
+            this.touchedAt = now;
+        }
+
+        private synchronized double score(long now) {
+            double score = MAX_SCORE - zonePenalty.valueAt(now) - dangerPenalty - alertPenalty;
+            return Math.max(0, Math.min(MAX_SCORE, score));
+        }
+    }
+}
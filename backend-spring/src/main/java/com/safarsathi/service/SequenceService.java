@@ -20,12 +20,20 @@ public class SequenceService {
     private final MongoTemplate mongoTemplate;
 
     public long getNextId(String sequenceName) {
+        return reserveIds(sequenceName, 1);
+    }
+
+    /**
+     * Reserve count consecutive ids in one round trip and return the first of them.
+     */
+    public long reserveIds(String sequenceName, int count) {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive");
         Counter counter = mongoTemplate.findAndModify(
                 Query.query(Criteria.where("_id").is(sequenceName)),
-                new Update().inc("seq", 1),
+                new Update().inc("seq", count),
                 FindAndModifyOptions.options().returnNew(true).upsert(true),
                 Counter.class
         );
-        return counter != null ? counter.getSeq() : 1;
+        return counter != null ? counter.getSeq() - count + 1 : 1;
     }
 }
@@ -0,0 +1,268 @@
+package com.safarsathi.service;
+
+import com.safarsathi.dto.TouristDirectoryPage;
+import com.safarsathi.dto.TouristDirectoryQuery;
+import com.safarsathi.dto.TouristSummary;
+import com.safarsathi.entity.Alert;
+import com.safarsathi.entity.Tourist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Paginated, filterable tourist directory for admins.
+ * Pages are ordered by lastSeen (newest first) with the tourist id as tie-breaker and
+ * addressed by an opaque keyset cursor, so every page is a bounded index range scan.
+ * Score filters, the derived status and the displayed score all use the persisted safetyScore,
+ * so a row always matches the filters it was returned for.
+ */
+@Service
+public class TouristDirectoryService {
+
+    private static final String RESOLVED_STATUS = "RESOLVED";
+    private static final String SOS_ALERT_TYPE = "SOS";
+    private static final double WARNING_SCORE_THRESHOLD = 70.0;
+
+    private final MongoTemplate mongoTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public TouristDirectoryService(MongoTemplate mongoTemplate,
+                                   @Value("${app.directory.default-limit:50}") int defaultLimit,
+                                   @Value("${app.directory.max-limit:200}") int maxLimit) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Fetch one page of the directory.
+     */
+    public TouristDirectoryPage search(TouristDirectoryQuery request) {
+        return search(request, null);
+    }
+
+    /**
+     * Fetch one page of the directory, restricted to a jurisdiction (null = state-wide).
+     */
+    public TouristDirectoryPage search(TouristDirectoryQuery request, Jurisdiction jurisdiction) {
+        int limit = resolveLimit(request.getLimit());
+
+        List<Criteria> criteria = buildFilterCriteria(request, jurisdiction);
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            criteria.add(afterCursor(decodeCursor(request.getCursor())));
+        }
+
+        Query query = new Query(combine(criteria))
+                .with(Sort.by(Sort.Order.desc("lastSeen"), Sort.Order.asc("_id")))
+                .limit(limit + 1);
+        query.fields().include("name", "safetyScore", "lastSeen", "currentLat", "currentLng");
+
+        List<Tourist> tourists = mongoTemplate.find(query, Tourist.class);
+        boolean hasMore = tourists.size() > limit;
+        if (hasMore) {
+            tourists = tourists.subList(0, limit);
+        }
+
+        Map<String, List<Alert>> openAlerts = findOpenAlerts(tourists.stream().map(Tourist::getId).toList());
+        List<TouristSummary> items = tourists.stream()
+                .map(t -> toSummary(t, openAlerts.getOrDefault(t.getId(), List.of())))
+                .toList();
+
+        String nextCursor = hasMore && !tourists.isEmpty()
+                ? encodeCursor(tourists.get(tourists.size() - 1))
+                : null;
+
+        return TouristDirectoryPage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
+    }
+
+    /**
+     * Count the tourists matching the filters (cursor and limit are ignored).
+     */
+    public long count(TouristDirectoryQuery request, Jurisdiction jurisdiction) {
+        return mongoTemplate.count(new Query(combine(buildFilterCriteria(request, jurisdiction))), Tourist.class);
+    }
+
+    // --- Filters ---
+
+    private List<Criteria> buildFilterCriteria(TouristDirectoryQuery request, Jurisdiction jurisdiction) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (jurisdiction != null) {
+            criteria.add(jurisdiction.toCriteria("location"));
+        }
+
+        if (request.getMinScore() != null || request.getMaxScore() != null) {
+            Criteria score = Criteria.where("safetyScore");
+            if (request.getMinScore() != null) score.gte(request.getMinScore());
+            if (request.getMaxScore() != null) score.lte(request.getMaxScore());
+            criteria.add(score);
+        }
+
+        if (request.getSeenWithinMinutes() != null) {
+            if (request.getSeenWithinMinutes() <= 0) {
+                throw new IllegalArgumentException("seenWithinMinutes must be positive");
+            }
+            Instant cutoff = Instant.now().minus(request.getSeenWithinMinutes(), ChronoUnit.MINUTES);
+            criteria.add(Criteria.where("lastSeen").gte(cutoff));
+        }
+
+        if (request.getInactiveForMinutes() != null) {
+            if (request.getInactiveForMinutes() <= 0) {
+                throw new IllegalArgumentException("inactiveForMinutes must be positive");
+            }
+            Instant cutoff = Instant.now().minus(request.getInactiveForMinutes(), ChronoUnit.MINUTES);
+            criteria.add(Criteria.where("lastSeen").lt(cutoff));
+        }
+
+        if (request.getMinLat() != null || request.getMaxLat() != null
+                || request.getMinLng() != null || request.getMaxLng() != null) {
+            if (request.getMinLat() == null || request.getMaxLat() == null
+                    || request.getMinLng() == null || request.getMaxLng() == null) {
+                throw new IllegalArgumentException("Bounding box requires minLat, maxLat, minLng and maxLng");
+            }
+            criteria.add(Criteria.where("currentLat").gte(request.getMinLat()).lte(request.getMaxLat()));
+            criteria.add(Criteria.where("currentLng").gte(request.getMinLng()).lte(request.getMaxLng()));
+        }
+
+        if (request.getNationality() != null && !request.getNationality().isBlank()) {
+            criteria.add(Criteria.where("nationality").is(request.getNationality().trim()));
+        }
+        if (request.getTravelType() != null && !request.getTravelType().isBlank()) {
+            criteria.add(Criteria.where("travelType").is(request.getTravelType().trim()));
+        }
+
+        if (request.getStatus() != null && !request.getStatus().isBlank()) {
+            criteria.add(statusCriteria(request.getStatus().trim().toLowerCase()));
+        }
+
+        return criteria;
+    }
+
+    /**
+     * Status is derived from open alerts and the safety score (see DashboardService). Open alerts
+     * are summarised on the tourist as alertState (maintained by AlertService), so each status is
+     * an indexed match on the tourists collection.
+     */
+    private Criteria statusCriteria(String status) {
+        return switch (status) {
+            case "sos" -> Criteria.where("alertState").is(AlertService.ALERT_STATE_SOS);
+            case "warning" -> new Criteria().orOperator(
+                    Criteria.where("alertState").is(AlertService.ALERT_STATE_OPEN),
+                    new Criteria().andOperator(
+                            Criteria.where("alertState").is(null),
+                            Criteria.where("safetyScore").lt(WARNING_SCORE_THRESHOLD)));
+            case "safe" -> new Criteria().andOperator(
+                    Criteria.where("alertState").is(null),
+                    new Criteria().orOperator(
+                            Criteria.where("safetyScore").gte(WARNING_SCORE_THRESHOLD),
+                            Criteria.where("safetyScore").is(null)));
+            default -> throw new IllegalArgumentException("status must be one of safe, warning, sos");
+        };
+    }
+
+    private Map<String, List<Alert>> findOpenAlerts(List<String> touristIds) {
+        if (touristIds.isEmpty()) return Map.of();
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("touristId").in(touristIds),
+                Criteria.where("status").ne(RESOLVED_STATUS)));
+        query.fields().include("touristId", "alertType", "status");
+
+        Map<String, List<Alert>> byTourist = new HashMap<>();
+        for (Alert alert : mongoTemplate.find(query, Alert.class)) {
+            byTourist.computeIfAbsent(alert.getTouristId(), k -> new ArrayList<>()).add(alert);
+        }
+        return byTourist;
+    }
+
+    // --- Cursor ---
+
+    private Criteria afterCursor(String[] cursor) {
+        String id = cursor[1];
+        if (cursor[0].isEmpty()) {
+            // Tourists without lastSeen sort last; page through them by id only
+            return new Criteria().andOperator(
+                    Criteria.where("lastSeen").is(null),
+                    Criteria.where("_id").gt(id));
+        }
+        Instant lastSeen = Instant.ofEpochMilli(Long.parseLong(cursor[0]));
+        return new Criteria().orOperator(
+                Criteria.where("lastSeen").lt(lastSeen),
+                new Criteria().andOperator(Criteria.where("lastSeen").is(lastSeen), Criteria.where("_id").gt(id)),
+                Criteria.where("lastSeen").is(null));
+    }
+
+    private String encodeCursor(Tourist last) {
+        String lastSeen = last.getLastSeen() != null ? String.valueOf(last.getLastSeen().toEpochMilli()) : "";
+        String raw = lastSeen + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String lastSeen = raw.substring(0, separator);
+            if (!lastSeen.isEmpty()) Long.parseLong(lastSeen);
+            return new String[]{lastSeen, raw.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // --- Helpers ---
+
+    private int resolveLimit(Integer requested) {
+        if (requested == null || requested <= 0) return defaultLimit;
+        return Math.min(requested, maxLimit);
+    }
+
+    private Criteria combine(List<Criteria> criteria) {
+        if (criteria.isEmpty()) return new Criteria();
+        if (criteria.size() == 1) return criteria.get(0);
+        return new Criteria().andOperator(criteria.toArray(new Criteria[0]));
+    }
+
+    private TouristSummary toSummary(Tourist tourist, List<Alert> openAlerts) {
+        double safetyScore = SafetyScoreEngine.persistedScore(tourist);
+        return TouristSummary.builder()
+                .id(tourist.getId())
+                .name(tourist.getName())
+                .status(deriveStatus(safetyScore, openAlerts))
+                .safetyScore(safetyScore)
+                .lastPing(tourist.getLastSeen() != null ? tourist.getLastSeen().toString() : null)
+                .lat(tourist.getCurrentLat())
+                .lng(tourist.getCurrentLng())
+                .lastKnownArea(buildLastKnownArea(tourist.getCurrentLat(), tourist.getCurrentLng()))
+                .build();
+    }
+
+    private String deriveStatus(double safetyScore, List<Alert> openAlerts) {
+        boolean hasSos = openAlerts.stream()
+                .anyMatch(a -> SOS_ALERT_TYPE.equalsIgnoreCase(a.getAlertType()));
+        if (hasSos) return "sos";
+        if (!openAlerts.isEmpty() || safetyScore < WARNING_SCORE_THRESHOLD) return "warning";
+        return "safe";
+    }
+
+    private String buildLastKnownArea(Double lat, Double lng) {
+        if (lat == null || lng == null) return "Unknown";
+        return String.format("%.4f, %.4f", lat, lng);
+    }
+}
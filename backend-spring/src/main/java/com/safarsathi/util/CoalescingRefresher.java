@@ -0,0 +1,84 @@
+package com.safarsathi.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a rebuild task in the background, coalescing requests: at most one run is in flight, and a
+ * request that arrives while a run is in progress schedules exactly one more run after it, so no
+ * invalidation is lost. Failures are logged and the next request tries again.
+ */
+public final class CoalescingRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingRefresher.class);
+
+    private final String name;
+    private final Runnable task;
+    private final Executor executor;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Rebuilds run on a dedicated daemon thread, keeping blocking loads off the common pool.
+     */
+    public CoalescingRefresher(String name, Runnable task) {
+        this(name, task, singleThread(name));
+    }
+
+    public CoalescingRefresher(String name, Runnable task, Executor executor) {
+        this.name = name;
+        this.task = task;
+        this.executor = executor;
+    }
+
+    /**
+     * Ask for a rebuild that starts after this call. Returns immediately.
+     */
+    public void request() {
+        dirty.set(true);
+        schedule();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void schedule() {
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            executor.execute(this::drain);
+        } catch (RuntimeException e) {
+            running.set(false);
+            logger.warn("Could not schedule {} rebuild", name, e);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (dirty.getAndSet(false)) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.warn("{} rebuild failed", name, e);
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        // A request that landed between the last check and clearing running
+        if (dirty.get()) schedule();
+    }
+
+    private static ExecutorService singleThread(String name) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.safarsathi.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed danger scores on a lat/lng grid for each hour of day, memory-mapped read-only.
+ * Layout: header, region table, then per region 24 hour planes of rows x cols shorts (score in thousandths).
+ * A lookup is one bounds check and one absolute read from the mapping; no I/O on the request path.
+ */
+public final class DangerRaster {
+
+    public static final int HOURS = 24;
+    private static final int MAGIC = 0x53534452; // "SSDR"
+    private static final int VERSION = 1;
+    private static final double SCORE_SCALE = 1000.0;
+
+    public record Region(String name, double minLat, double minLng, double maxLat, double maxLng) {
+    }
+
+    @FunctionalInterface
+    public interface Scorer {
+        double score(double lat, double lng, int hour);
+    }
+
+    private record Plane(double minLat, double minLng, int rows, int cols, long offset) {
+    }
+
+    private final MappedByteBuffer buffer;
+    private final double cellDeg;
+    private final List<Plane> planes;
+
+    private DangerRaster(MappedByteBuffer buffer, double cellDeg, List<Plane> planes) {
+        this.buffer = buffer;
+        this.cellDeg = cellDeg;
+        this.planes = planes;
+    }
+
+    /**
+     * Map a raster file. The mapping stays valid after the file is replaced by an atomic move.
+     */
+    public static DangerRaster map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a danger raster file: " + file);
+            }
+            double cellDeg = buffer.getDouble(8);
+            int regionCount = buffer.getInt(16);
+            List<Plane> planes = new ArrayList<>(regionCount);
+            int position = 20;
+            for (int i = 0; i < regionCount; i++) {
+                planes.add(new Plane(buffer.getDouble(position), buffer.getDouble(position + 8),
+                        buffer.getInt(position + 16), buffer.getInt(position + 20), buffer.getLong(position + 24)));
+                position += 32;
+            }
+            return new DangerRaster(buffer, cellDeg, planes);
+        }
+    }
+
+    /**
+     * Score at a point and hour, or NaN when the point is outside every region.
+     */
+    public double lookup(double lat, double lng, int hour) {
+        for (Plane plane : planes) {
+            int row = (int) Math.floor((lat - plane.minLat) / cellDeg);
+            int col = (int) Math.floor((lng - plane.minLng) / cellDeg);
+            if (row < 0 || col < 0 || row >= plane.rows || col >= plane.cols) continue;
+            long index = plane.offset + 2L * (((long) hour * plane.rows + row) * plane.cols + col);
+            return buffer.getShort((int) index) / SCORE_SCALE;
+        }
+        return Double.NaN;
+    }
+
+    public double getCellDeg() {
+        return cellDeg;
+    }
+
+    /**
+     * Evaluate the scorer at every cell center and hour and write the raster file.
+     * Hour planes are computed in parallel.
+     */
+    public static void write(Path file, double cellDeg, List<Region> regions, Scorer scorer) throws IOException {
+        if (cellDeg <= 0) {
+            throw new IllegalArgumentException("cellDeg must be positive");
+        }
+        int headerSize = 20 + 32 * regions.size();
+        List<Plane> planes = new ArrayList<>();
+        long offset = headerSize;
+        for (Region region : regions) {
+            // The epsilon keeps floating-point noise from adding a spurious extra row/column
+            int rows = (int) Math.ceil((region.maxLat() - region.minLat()) / cellDeg - 1e-9);
+            int cols = (int) Math.ceil((region.maxLng() - region.minLng()) / cellDeg - 1e-9);
+            planes.add(new Plane(region.minLat(), region.minLng(), rows, cols, offset));
+            offset += 2L * HOURS * rows * cols;
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Raster too large; use a coarser cell size");
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putDouble(cellDeg).putInt(planes.size());
+            for (Plane plane : planes) {
+                header.putDouble(plane.minLat).putDouble(plane.minLng)
+                        .putInt(plane.rows).putInt(plane.cols).putLong(plane.offset);
+            }
+            header.flip();
+            writeFully(channel, header);
+
+            for (Plane plane : planes) {
+                ByteBuffer[] hourPlanes = new ByteBuffer[HOURS];
+                IntStream.range(0, HOURS).parallel().forEach(hour -> {
+                    ByteBuffer data = ByteBuffer.allocate(2 * plane.rows * plane.cols).order(ByteOrder.LITTLE_ENDIAN);
+                    for (int row = 0; row < plane.rows; row++) {
+                        double lat = plane.minLat + (row + 0.5) * cellDeg;
+                        for (int col = 0; col < plane.cols; col++) {
+                            double lng = plane.minLng + (col + 0.5) * cellDeg;
+                            double score = scorer.score(lat, lng, hour);
+                            data.putShort((short) Math.max(Short.MIN_VALUE,
+                                    Math.min(Short.MAX_VALUE, Math.round(score * SCORE_SCALE))));
+                        }
+                    }
+                    data.flip();
+                    hourPlanes[hour] = data;
+                });
+                for (ByteBuffer data : hourPlanes) {
+                    writeFully(channel, data);
+                }
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.safarsathi.util;
+
+import com.safarsathi.util.IncidentDataset.Incident;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Offline raster generation from the incident dataset and the kernel model.
+ * Usage: DangerRasterBuilder &lt;incidents.bin|incidents.csv&gt; &lt;output.bin&gt; [cellDeg]
+ */
+public final class DangerRasterBuilder {
+
+    /** Bounding boxes of the states the app serves (Punjab, Assam). */
+    public static final List<DangerRaster.Region> DEFAULT_REGIONS = List.of(
+            new DangerRaster.Region("punjab", 29.5, 73.8, 32.6, 77.0),
+            new DangerRaster.Region("assam", 24.1, 89.6, 28.0, 96.1));
+
+    public static final double DEFAULT_CELL_DEG = 0.01;
+
+    private DangerRasterBuilder() {
+    }
+
+    /**
+     * Write the raster to a temporary sibling file, then atomically move it over the target,
+     * so readers polling the target never see a partial file.
+     */
+    public static void buildAtomically(Path target, double cellDeg, List<DangerRaster.Region> regions,
+                                       DangerRaster.Scorer scorer) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            DangerRaster.write(temp, cellDeg, regions, scorer);
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DangerRasterBuilder <incidents.bin|incidents.csv> <output.bin> [cellDeg]");
+            System.exit(1);
+        }
+        double cellDeg = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_CELL_DEG;
+        List<Incident> incidents;
+        try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+            incidents = args[0].toLowerCase().endsWith(".csv")
+                    ? IncidentDataset.readCsv(in)
+                    : IncidentDataset.readBinary(in);
+        }
+        // Same defaults as app.safety.model.*
+        KernelDangerModel model = new KernelDangerModel(incidents, 1.5, 1.5, 0.1, 0.0);
+
+        long start = System.currentTimeMillis();
+        buildAtomically(Path.of(args[1]), cellDeg, DEFAULT_REGIONS, model::score);
+        System.out.printf("Wrote %s (cell %.4f deg) in %d ms%n", args[1], cellDeg, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,32 @@
+package com.safarsathi.util;
+
+/**
+ * A non-negative quantity that halves every half-life. Nothing is updated in the background:
+ * the stored amount is rebased to "now" only when it is read or added to.
+ * Not thread-safe on its own; callers synchronize.
+ */
+public final class DecayingValue {
+
+    private final double halfLifeMs;
+    private double amount;
+    private long asOfMs;
+
+    public DecayingValue(long halfLifeMs, double initial, long nowMs) {
+        if (halfLifeMs <= 0) {
+            throw new IllegalArgumentException("halfLifeMs must be positive");
+        }
+        this.halfLifeMs = halfLifeMs;
+        this.amount = Math.max(0, initial);
+        this.asOfMs = nowMs;
+    }
+
+    public double valueAt(long nowMs) {
+        if (amount == 0 || nowMs <= asOfMs) return amount;
+        return amount * Math.pow(0.5, (nowMs - asOfMs) / halfLifeMs);
+    }
+
+    public void add(double delta, long nowMs) {
+        amount = Math.max(0, valueAt(nowMs) + delta);
+        asOfMs = Math.max(asOfMs, nowMs);
+    }
+}
@@ -0,0 +1,100 @@
+package com.safarsathi.util;
+
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Compact Ed25519-signed tokens: base64url(payload) "." base64url(signature), 86 characters of
+ * signature regardless of payload. Verification needs only the public key, so it works offline.
+ */
+public final class Ed25519Tokens {
+
+    private static final String ALGORITHM = "Ed25519";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(Ed25519Tokens::newSignature);
+
+    private Ed25519Tokens() {
+    }
+
+    public static KeyPair generateKeyPair() {
+        try {
+            return KeyPairGenerator.getInstance(ALGORITHM).generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Ed25519 not available", e);
+        }
+    }
+
+    /**
+     * Parse a base64 PKCS#8 private key and X.509 public key.
+     */
+    public static KeyPair decodeKeyPair(String privateKeyBase64, String publicKeyBase64) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance(ALGORITHM);
+            PrivateKey privateKey = factory.generatePrivate(
+                    new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKeyBase64.trim())));
+            PublicKey publicKey = factory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(publicKeyBase64.trim())));
+            return new KeyPair(publicKey, privateKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid Ed25519 key pair", e);
+        }
+    }
+
+    /**
+     * Short identifier of a public key, so verifiers can pick the right key after rotation.
+     */
+    public static String keyId(PublicKey publicKey) {
+        return HashUtil.sha256Hex(publicKey.getEncoded()).substring(0, 16);
+    }
+
+    public static String sign(PrivateKey privateKey, byte[] payload) {
+        Signature signature = SIGNATURE.get();
+        try {
+            signature.initSign(privateKey);
+            signature.update(payload);
+            return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(signature.sign());
+        } catch (InvalidKeyException | SignatureException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+
+    /**
+     * The payload of a token whose signature checks out under the key; empty if malformed or forged.
+     */
+    public static Optional<byte[]> verify(PublicKey publicKey, String token) {
+        if (token == null) return Optional.empty();
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) return Optional.empty();
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signatureBytes = DECODER.decode(token.substring(dot + 1));
+            Signature signature = SIGNATURE.get();
+            signature.initVerify(publicKey);
+            signature.update(payload);
+            return signature.verify(signatureBytes) ? Optional.of(payload) : Optional.empty();
+        } catch (IllegalArgumentException | InvalidKeyException | SignatureException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Signature newSignature() {
+        try {
+            return Signature.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Ed25519 not available", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.safarsathi.util;
 
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
 /**
  * Geo-fencing utilities: Haversine distance, radius checks, deviation detection.
  */
@@ -30,6 +32,14 @@ public final class GeoFenceUtil {
         return haversineMeters(lat, lng, centerLat, centerLng) <= radiusMeters;
     }
 
+    /**
+     * Build a GeoJSON point (longitude first) for 2dsphere-indexed fields, or null if incomplete.
+     */
+    public static GeoJsonPoint toGeoPoint(Double lat, Double lng) {
+        if (lat == null || lng == null) return null;
+        return new GeoJsonPoint(lng, lat);
+    }
+
     /**
      * Haversine formula to compute the great-circle distance in meters.
      */
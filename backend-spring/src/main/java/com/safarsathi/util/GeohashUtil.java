@@ -0,0 +1,92 @@
+package com.safarsathi.util;
+
+/**
+ * Geohash encoding: interleaved lng/lat bisection rendered in base32.
+ * Used as a cache key for "same neighbourhood" lookups.
+ */
+public final class GeohashUtil {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    public static final int MAX_PRECISION = 12;
+
+    private GeohashUtil() {
+    }
+
+    /**
+     * Encode a coordinate into a geohash of the given length (1-12 characters).
+     */
+    public static String encode(double lat, double lng, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between 1 and " + MAX_PRECISION);
+        }
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+        for (int i = 0; i < precision; i++) {
+            int index = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (lng >= mid) {
+                        index = (index << 1) | 1;
+                        minLng = mid;
+                    } else {
+                        index <<= 1;
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (lat >= mid) {
+                        index = (index << 1) | 1;
+                        minLat = mid;
+                    } else {
+                        index <<= 1;
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+            hash[i] = BASE32[index];
+        }
+        return new String(hash);
+    }
+
+    /**
+     * Bounding box of a geohash cell as {minLat, maxLat, minLng, maxLng}.
+     */
+    public static double[] bounds(String geohash) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        boolean evenBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            int index = indexOf(geohash.charAt(i));
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((index >> bit) & 1) == 1;
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) minLng = mid; else maxLng = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) minLat = mid; else maxLat = mid;
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{minLat, maxLat, minLng, maxLng};
+    }
+
+    /**
+     * Center of a geohash cell as {lat, lng}.
+     */
+    public static double[] center(String geohash) {
+        double[] b = bounds(geohash);
+        return new double[]{(b[0] + b[1]) / 2, (b[2] + b[3]) / 2};
+    }
+
+    private static int indexOf(char c) {
+        char lower = Character.toLowerCase(c);
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == lower) return i;
+        }
+        throw new IllegalArgumentException("Invalid geohash character: " + c);
+    }
+}
@@ -1,28 +1,99 @@
 package com.safarsathi.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
  * Hashing utility using SHA-256.
+ * Digests are thread-confined and reused instead of looked up per call, and hex encoding goes
+ * through a lookup table straight into a char array.
  */
 public final class HashUtil {
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(HashUtil::newSha256);
+
     private HashUtil() {
     }
 
     public static String sha256(String data) {
+        return toHex(sha256(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static byte[] sha256(byte[] data) {
+        return threadLocalSha256().digest(data);
+    }
+
+    /**
+     * Hash the buffer's remaining bytes; the caller's position is left untouched.
+     */
+    public static byte[] sha256(ByteBuffer data) {
+        MessageDigest digest = threadLocalSha256();
+        digest.update(data.duplicate());
+        return digest.digest();
+    }
+
+    /**
+     * Hash a stream to its end in fixed-size chunks; the stream is not closed.
+     */
+    public static byte[] sha256(InputStream in) throws IOException {
+        MessageDigest digest = threadLocalSha256();
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return digest.digest();
+    }
+
+    public static String sha256Hex(byte[] data) {
+        return toHex(sha256(data));
+    }
+
+    public static String sha256Hex(ByteBuffer data) {
+        return toHex(sha256(data));
+    }
+
+    /**
+     * This thread's SHA-256 instance, reset. It is shared with the other methods here, so finish
+     * with it before calling back into HashUtil.
+     */
+    public static MessageDigest threadLocalSha256() {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return digest;
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            out[j++] = HEX[b >>> 4];
+            out[j++] = HEX[b & 0x0f];
+        }
+        return new String(out);
+    }
+
+    public static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) throw new IllegalArgumentException("Invalid hex");
+        byte[] out = new byte[hex.length() / 2];
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) throw new IllegalArgumentException("Invalid hex");
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return out;
+    }
+
+    private static MessageDigest newSha256() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA-256 algorithm not available", e);
         }
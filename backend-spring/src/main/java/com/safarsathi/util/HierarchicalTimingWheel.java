@@ -0,0 +1,198 @@
+package com.safarsathi.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by K: at most one deadline per key.
+ * schedule/cancel are O(1); each entry is cascaded at most once per level before it expires.
+ * Not thread-safe on its own; callers synchronize.
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Slot<K>[][] wheels;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tickMs    resolution of one tick in milliseconds
+     * @param wheelSize slots per level, must be a power of two
+     * @param levels    number of levels; the horizon is tickMs * wheelSize^levels
+     * @param startMs   wall-clock time the wheel starts at
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (tickMs <= 0 || levels <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("tickMs and levels must be positive, wheelSize a power of two");
+        }
+        this.tickMs = tickMs;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.wheels = new Slot[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                wheels[level][slot] = new Slot<>();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Arm (or re-arm) the deadline for a key.
+     */
+    public void schedule(K key, long deadlineMs) {
+        cancel(key);
+        Entry<K> entry = new Entry<>(key, Math.floorDiv(deadlineMs + tickMs - 1, tickMs));
+        entries.put(key, entry);
+        place(entry, false);
+    }
+
+    /**
+     * Remove a key's deadline. Returns false if none was armed.
+     */
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) return false;
+        entry.unlink();
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the given time and return the keys whose deadline has passed.
+     */
+    public List<K> advanceTo(long nowMs) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMs / tickMs;
+        if (targetTick - currentTick >= horizonTicks()) {
+            // Far jump (e.g. long pause): re-place everything instead of ticking through the gap
+            currentTick = targetTick;
+            List<Entry<K>> all = new ArrayList<>(entries.values());
+            all.forEach(Entry::unlink);
+            for (Entry<K> entry : all) {
+                if (entry.deadlineTick <= currentTick) {
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    place(entry, false);
+                }
+            }
+            return expired;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Slot<K> due = wheels[0][(int) (currentTick & mask)];
+            for (Entry<K> entry : due.drain()) {
+                if (entry.deadlineTick <= currentTick) {
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    place(entry, false);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if (((currentTick >> (bits * (level - 1))) & mask) != 0) return;
+            Slot<K> slot = wheels[level][(int) ((currentTick >> (bits * level)) & mask)];
+            for (Entry<K> entry : slot.drain()) {
+                place(entry, true);
+            }
+        }
+    }
+
+    /**
+     * Cascades run before the current level-0 slot is processed, so entries due now go into that
+     * slot; anything else that is already due fires on the next tick.
+     */
+    private void place(Entry<K> entry, boolean cascading) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            long dueTick = cascading ? currentTick : currentTick + 1;
+            wheels[0][(int) (dueTick & mask)].add(entry);
+            return;
+        }
+        long horizon = horizonTicks();
+        long placementTick = delta >= horizon ? currentTick + horizon - 1 : entry.deadlineTick;
+        long placementDelta = placementTick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && placementDelta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((placementTick >> (bits * level)) & mask)].add(entry);
+    }
+
+    private long horizonTicks() {
+        return 1L << (bits * levels);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineTick;
+        private Slot<K> slot;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        private Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private void unlink() {
+            if (slot != null) slot.remove(this);
+        }
+    }
+
+    /**
+     * Intrusive doubly-linked list so entries can be removed in O(1).
+     */
+    private static final class Slot<K> {
+        private Entry<K> head;
+
+        private void add(Entry<K> entry) {
+            entry.slot = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) head.prev = entry;
+            head = entry;
+        }
+
+        private void remove(Entry<K> entry) {
+            if (entry.prev != null) entry.prev.next = entry.next;
+            else head = entry.next;
+            if (entry.next != null) entry.next.prev = entry.prev;
+            entry.slot = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        private List<Entry<K>> drain() {
+            List<Entry<K>> drained = new ArrayList<>();
+            Entry<K> cursor = head;
+            while (cursor != null) {
+                Entry<K> next = cursor.next;
+                cursor.slot = null;
+                cursor.prev = null;
+                cursor.next = null;
+                drained.add(cursor);
+                cursor = next;
+            }
+            head = null;
+            return drained;
+        }
+    }
+}
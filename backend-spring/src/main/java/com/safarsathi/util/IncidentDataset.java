@@ -0,0 +1,121 @@
+package com.safarsathi.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incident rows (lat, lng, hour, danger score) used by the embedded danger model.
+ * Reads the training CSV (SafarSathi_Punjab_Data.csv) or a compact prebuilt binary
+ * (11 bytes per incident, see writeBinary); run main to convert CSV to binary.
+ */
+public final class IncidentDataset {
+
+    private static final int MAGIC = 0x5353444D; // "SSDM"
+    private static final int VERSION = 1;
+    private static final double SCORE_SCALE = 1000.0;
+
+    private IncidentDataset() {
+    }
+
+    public record Incident(double lat, double lng, int hour, double dangerScore) {
+    }
+
+    /**
+     * Parse the CSV (header: Timestamp,District,Latitude,Longitude,Incident_Type,Hour,Danger_Score).
+     * Malformed rows are skipped.
+     */
+    public static List<Incident> readCsv(InputStream in) throws IOException {
+        List<Incident> incidents = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) return incidents;
+            List<String> columns = List.of(header.trim().split(","));
+            int latCol = columns.indexOf("Latitude");
+            int lngCol = columns.indexOf("Longitude");
+            int hourCol = columns.indexOf("Hour");
+            int scoreCol = columns.indexOf("Danger_Score");
+            if (latCol < 0 || lngCol < 0 || hourCol < 0 || scoreCol < 0) {
+                throw new IOException("CSV is missing Latitude/Longitude/Hour/Danger_Score columns");
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length < columns.size()) continue;
+                try {
+                    incidents.add(new Incident(
+                            Double.parseDouble(fields[latCol]),
+                            Double.parseDouble(fields[lngCol]),
+                            Math.floorMod(Integer.parseInt(fields[hourCol].trim()), 24),
+                            Double.parseDouble(fields[scoreCol])));
+                } catch (NumberFormatException ignored) {
+                    // skip malformed row
+                }
+            }
+        }
+        return incidents;
+    }
+
+    public static List<Incident> readBinary(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not an incident dataset file");
+        }
+        int count = data.readInt();
+        List<Incident> incidents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float lat = data.readFloat();
+            float lng = data.readFloat();
+            int hour = data.readByte();
+            double score = data.readShort() / SCORE_SCALE;
+            incidents.add(new Incident(lat, lng, hour, score));
+        }
+        return incidents;
+    }
+
+    /**
+     * Float coordinates (~1m) and the score in thousandths are well within the model's resolution.
+     */
+    public static void writeBinary(List<Incident> incidents, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(incidents.size());
+        for (Incident incident : incidents) {
+            data.writeFloat((float) incident.lat());
+            data.writeFloat((float) incident.lng());
+            data.writeByte(incident.hour());
+            data.writeShort((int) Math.round(incident.dangerScore() * SCORE_SCALE));
+        }
+        data.flush();
+    }
+
+    /**
+     * Usage: IncidentDataset &lt;input.csv&gt; &lt;output.bin&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: IncidentDataset <input.csv> <output.bin>");
+            System.exit(1);
+        }
+        List<Incident> incidents;
+        try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+            incidents = readCsv(in);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(args[1])))) {
+            writeBinary(incidents, out);
+        }
+        System.out.println("Wrote " + incidents.size() + " incidents to " + args[1]);
+    }
+}
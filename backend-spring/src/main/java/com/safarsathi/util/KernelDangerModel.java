@@ -0,0 +1,113 @@
+package com.safarsathi.util;
+
+import com.safarsathi.util.IncidentDataset.Incident;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kernel-weighted (Nadaraya-Watson) danger score over historical incidents.
+ * Each incident contributes its danger score with a Gaussian weight in distance and in circular
+ * hour difference; a small prior weight pulls areas with little history towards zero danger.
+ * Incidents are bucketed into a lat/lng grid so a query only visits cells within 3 bandwidths.
+ */
+public final class KernelDangerModel {
+
+    private static final double CELL_DEG = 0.01;
+    private static final double KM_PER_DEG = 111.32;
+
+    private final double bandwidthKm;
+    private final double bandwidthHours;
+    private final double priorWeight;
+    private final double priorScore;
+    private final int searchCells;
+
+    private final double[] lats;
+    private final double[] lngs;
+    private final int[] hours;
+    private final double[] scores;
+    /** cell key -> {start, end} into the arrays (sorted by cell) */
+    private final Map<Long, int[]> cells = new HashMap<>();
+
+    public KernelDangerModel(List<Incident> incidents, double bandwidthKm, double bandwidthHours,
+                             double priorWeight, double priorScore) {
+        if (bandwidthKm <= 0 || bandwidthHours <= 0 || priorWeight < 0) {
+            throw new IllegalArgumentException("Bandwidths must be positive and priorWeight non-negative");
+        }
+        this.bandwidthKm = bandwidthKm;
+        this.bandwidthHours = bandwidthHours;
+        this.priorWeight = priorWeight;
+        this.priorScore = priorScore;
+        this.searchCells = (int) Math.ceil(3 * bandwidthKm / (CELL_DEG * KM_PER_DEG * 0.8));
+
+        List<Incident> sorted = new ArrayList<>(incidents);
+        sorted.sort(Comparator.comparingLong(i -> cellKey(i.lat(), i.lng())));
+        int n = sorted.size();
+        this.lats = new double[n];
+        this.lngs = new double[n];
+        this.hours = new int[n];
+        this.scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            Incident incident = sorted.get(i);
+            lats[i] = incident.lat();
+            lngs[i] = incident.lng();
+            hours[i] = incident.hour();
+            scores[i] = incident.dangerScore();
+            long key = cellKey(incident.lat(), incident.lng());
+            int index = i;
+            cells.compute(key, (k, range) -> range == null ? new int[]{index, index + 1} : new int[]{range[0], index + 1});
+        }
+    }
+
+    /**
+     * Danger score in [0, max observed score] for a location and hour of day.
+     */
+    public double score(double lat, double lng, int hour) {
+        double kmPerDegLng = KM_PER_DEG * Math.cos(Math.toRadians(lat));
+        double distanceNorm = 1.0 / (2 * bandwidthKm * bandwidthKm);
+        double hourNorm = 1.0 / (2 * bandwidthHours * bandwidthHours);
+        double cutoff = 9 * bandwidthKm * bandwidthKm;
+
+        long row = cellIndex(lat);
+        long col = cellIndex(lng);
+        double weightSum = priorWeight;
+        double weighted = priorWeight * priorScore;
+        for (long r = row - searchCells; r <= row + searchCells; r++) {
+            for (long c = col - searchCells; c <= col + searchCells; c++) {
+                int[] range = cells.get(key(r, c));
+                if (range == null) continue;
+                for (int i = range[0]; i < range[1]; i++) {
+                    double dy = (lats[i] - lat) * KM_PER_DEG;
+                    double dx = (lngs[i] - lng) * kmPerDegLng;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 > cutoff) continue;
+                    int dh = Math.abs(hours[i] - hour);
+                    dh = Math.min(dh, 24 - dh);
+                    double w = Math.exp(-d2 * distanceNorm - dh * dh * hourNorm);
+                    weightSum += w;
+                    weighted += w * scores[i];
+                }
+            }
+        }
+        return weightSum > 0 ? weighted / weightSum : priorScore;
+    }
+
+    public int size() {
+        return scores.length;
+    }
+
+    private static long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / CELL_DEG);
+    }
+
+    private static long cellKey(double lat, double lng) {
+        return key(cellIndex(lat), cellIndex(lng));
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) ^ (col & 0xffffffffL);
+    }
+}
@@ -0,0 +1,120 @@
+package com.safarsathi.util;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SHA-256 Merkle tree over a block of leaves, with O(log n) inclusion proofs.
+ * Leaves and interior nodes are hashed with distinct prefixes (0x00 / 0x01) so a leaf can never be
+ * passed off as a node; an odd node at the end of a level is promoted unchanged rather than
+ * duplicated, so two different leaf lists cannot share a root.
+ */
+public final class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    /** levels.get(0) are the leaf hashes, the last level holds the root. */
+    private final List<byte[][]> levels;
+
+    /**
+     * One step of an inclusion proof: the sibling hash and which side it sits on.
+     */
+    public record ProofStep(byte[] sibling, boolean siblingOnLeft) {
+
+        /** Compact text form, "L:<hex>" or "R:<hex>". */
+        public String encode() {
+            return (siblingOnLeft ? "L:" : "R:") + HashUtil.toHex(sibling);
+        }
+
+        public static ProofStep decode(String encoded) {
+            if (encoded == null || encoded.length() < 3 || encoded.charAt(1) != ':'
+                    || (encoded.charAt(0) != 'L' && encoded.charAt(0) != 'R')) {
+                throw new IllegalArgumentException("Invalid proof step");
+            }
+            return new ProofStep(HashUtil.fromHex(encoded.substring(2)), encoded.charAt(0) == 'L');
+        }
+    }
+
+    private MerkleTree(List<byte[][]> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Build from leaf hashes (see hashLeaf).
+     */
+    public static MerkleTree fromLeafHashes(List<byte[]> leafHashes) {
+        if (leafHashes.isEmpty()) {
+            throw new IllegalArgumentException("A Merkle tree needs at least one leaf");
+        }
+        MessageDigest digest = HashUtil.threadLocalSha256();
+        List<byte[][]> levels = new ArrayList<>();
+        byte[][] level = leafHashes.toArray(new byte[0][]);
+        levels.add(level);
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                int left = 2 * i;
+                parent[i] = left + 1 < level.length ? hashNode(digest, level[left], level[left + 1]) : level[left];
+            }
+            levels.add(parent);
+            level = parent;
+        }
+        return new MerkleTree(levels);
+    }
+
+    public byte[] root() {
+        return levels.get(levels.size() - 1)[0].clone();
+    }
+
+    public int size() {
+        return levels.get(0).length;
+    }
+
+    /**
+     * Sibling path from the leaf up to (excluding) the root; at most ceil(log2 n) steps.
+     */
+    public List<ProofStep> proof(int leafIndex) {
+        if (leafIndex < 0 || leafIndex >= size()) {
+            throw new IllegalArgumentException("leafIndex out of range");
+        }
+        List<ProofStep> proof = new ArrayList<>();
+        int index = leafIndex;
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            byte[][] level = levels.get(depth);
+            int sibling = index ^ 1;
+            if (sibling < level.length) {
+                proof.add(new ProofStep(level[sibling], sibling < index));
+            }
+            index >>= 1;
+        }
+        return proof;
+    }
+
+    /**
+     * Recompute the root from a leaf hash and its proof and compare in constant time.
+     */
+    public static boolean verify(byte[] leafHash, List<ProofStep> proof, byte[] expectedRoot) {
+        MessageDigest digest = HashUtil.threadLocalSha256();
+        byte[] current = leafHash;
+        for (ProofStep step : proof) {
+            current = step.siblingOnLeft()
+                    ? hashNode(digest, step.sibling(), current)
+                    : hashNode(digest, current, step.sibling());
+        }
+        return MessageDigest.isEqual(current, expectedRoot);
+    }
+
+    public static byte[] hashLeaf(byte[] data) {
+        MessageDigest digest = HashUtil.threadLocalSha256();
+        digest.update(LEAF_PREFIX);
+        return digest.digest(data);
+    }
+
+    private static byte[] hashNode(MessageDigest digest, byte[] left, byte[] right) {
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        return digest.digest(right);
+    }
+}
@@ -0,0 +1,137 @@
+package com.safarsathi.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable k-d tree over points on the sphere for exact k-nearest-neighbour queries.
+ * Points are stored as unit vectors, where chord length orders neighbours the same way as
+ * great-circle distance, so there is no projection error near the poles or the antimeridian.
+ */
+public final class SphericalKdTree<T> {
+
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+
+    private final Object[] items;
+    private final double[][] xyz;
+    private final int[] axes;
+
+    public record Neighbor<T>(T item, double distanceMeters) {
+    }
+
+    public SphericalKdTree(List<T> points, ToDoubleFunction<T> lat, ToDoubleFunction<T> lng) {
+        int n = points.size();
+        Integer[] order = new Integer[n];
+        double[][] coords = new double[n][];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            coords[i] = toUnit(lat.applyAsDouble(points.get(i)), lng.applyAsDouble(points.get(i)));
+        }
+        this.items = new Object[n];
+        this.xyz = new double[n][];
+        this.axes = new int[n];
+        build(points, coords, order, 0, n);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Up to k items closest to the point that pass the filter, nearest first.
+     */
+    public List<Neighbor<T>> nearest(double lat, double lng, int k, Predicate<T> filter) {
+        if (k <= 0 || items.length == 0) return List.of();
+        double[] query = toUnit(lat, lng);
+        // Max-heap on squared chord length holding the best k so far
+        PriorityQueue<double[]> best = new PriorityQueue<>(k, Comparator.comparingDouble((double[] e) -> e[0]).reversed());
+        search(0, items.length, query, k, filter, best);
+
+        List<Neighbor<T>> result = new ArrayList<>(best.size());
+        best.stream()
+                .sorted(Comparator.comparingDouble(e -> e[0]))
+                .forEach(e -> result.add(new Neighbor<>(item((int) e[1]), chordToMeters(e[0]))));
+        return result;
+    }
+
+    private void build(List<T> points, double[][] coords, Integer[] order, int from, int to) {
+        if (from >= to) return;
+        int axis = widestAxis(coords, order, from, to);
+        Arrays.sort(order, from, to, Comparator.comparingDouble(i -> coords[i][axis]));
+        int mid = (from + to) >>> 1;
+        items[mid] = points.get(order[mid]);
+        xyz[mid] = coords[order[mid]];
+        axes[mid] = axis;
+        build(points, coords, order, from, mid);
+        build(points, coords, order, mid + 1, to);
+    }
+
+    private void search(int from, int to, double[] query, int k, Predicate<T> filter, PriorityQueue<double[]> best) {
+        if (from >= to) return;
+        int mid = (from + to) >>> 1;
+        double[] point = xyz[mid];
+        if (filter == null || filter.test(item(mid))) {
+            double d = squaredDistance(point, query);
+            if (best.size() < k) {
+                best.add(new double[]{d, mid});
+            } else if (d < best.peek()[0]) {
+                best.poll();
+                best.add(new double[]{d, mid});
+            }
+        }
+
+        double diff = query[axes[mid]] - point[axes[mid]];
+        boolean leftFirst = diff < 0;
+        if (leftFirst) search(from, mid, query, k, filter, best);
+        else search(mid + 1, to, query, k, filter, best);
+        if (best.size() < k || diff * diff < best.peek()[0]) {
+            if (leftFirst) search(mid + 1, to, query, k, filter, best);
+            else search(from, mid, query, k, filter, best);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T item(int index) {
+        return (T) items[index];
+    }
+
+    private static int widestAxis(double[][] coords, Integer[] order, int from, int to) {
+        int axis = 0;
+        double widest = -1;
+        for (int a = 0; a < 3; a++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double v = coords[order[i]][a];
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                axis = a;
+            }
+        }
+        return axis;
+    }
+
+    private static double[] toUnit(double lat, double lng) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lng);
+        double cosPhi = Math.cos(phi);
+        return new double[]{cosPhi * Math.cos(lambda), cosPhi * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double dx = a[0] - b[0], dy = a[1] - b[1], dz = a[2] - b[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double chordToMeters(double squaredChord) {
+        double chord = Math.sqrt(squaredChord);
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1, chord / 2));
+    }
+}
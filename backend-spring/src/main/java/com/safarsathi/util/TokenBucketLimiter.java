@@ -0,0 +1,147 @@
+package com.safarsathi.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, held in lock-striped LRU maps so unrelated keys do not contend.
+ * A bucket that has refilled to capacity is indistinguishable from a new one, so idle buckets are
+ * dropped (evictIdle) and each stripe is size-bounded; memory stays proportional to active clients.
+ */
+public final class TokenBucketLimiter {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final LongSupplier clock;
+
+    public TokenBucketLimiter(int stripeCount, int maxKeysPerStripe) {
+        this(stripeCount, maxKeysPerStripe, System::currentTimeMillis);
+    }
+
+    public TokenBucketLimiter(int stripeCount, int maxKeysPerStripe, LongSupplier clock) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1 || maxKeysPerStripe <= 0) {
+            throw new IllegalArgumentException("stripeCount must be a power of two and maxKeysPerStripe positive");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+        this.mask = stripeCount - 1;
+        this.clock = clock;
+    }
+
+    /**
+     * Take one token. Returns 0 when allowed, otherwise the milliseconds until a token is available.
+     */
+    public long tryAcquire(String key, double capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        long now = clock.getAsLong();
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, refillPerSecond / 1000.0, now);
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.take(now);
+        }
+    }
+
+    /**
+     * Return a token taken by tryAcquire, e.g. when a later check rejects the request anyway.
+     * A bucket never exceeds its capacity; a bucket already evicted is left alone.
+     */
+    public void release(String key) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket != null) bucket.give(now);
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely.
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> it = stripe.buckets.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next().isFull(now)) it.remove();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<String, Bucket> buckets;
+
+        private Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        private final double capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double capacity, double refillPerMs, long now) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerMs;
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        private long take(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerMs));
+        }
+
+        private void give(long now) {
+            refill(now);
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        private boolean isFull(long now) {
+            return tokens + (now - updatedAt) * refillPerMs >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) * refillPerMs);
+                updatedAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.safarsathi.security;
+
+import com.safarsathi.dto.IdCredentialCheck;
+import com.safarsathi.entity.Tourist;
+import com.safarsathi.repository.RevokedCredentialRepository;
+import com.safarsathi.service.SequenceService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdCredentialServiceTest {
+
+    private final RevokedCredentialRepository repository = mock(RevokedCredentialRepository.class);
+    private final IdCredentialService service =
+            new IdCredentialService(repository, mock(SequenceService.class), "", "", 10);
+
+    @Test
+    void testIssuedCredentialVerifies() {
+        Tourist tourist = Tourist.builder()
+                .id("t1").idHash("abc").name("Aarav Sharma").passportNumber("IND1234567")
+                .idExpiry("2099-01-01T00:00:00Z")
+                .build();
+
+        IdCredentialCheck check = service.verifyAll(List.of(service.issue(tourist))).get(0);
+
+        assertTrue(check.isValid());
+        assertEquals("t1", check.getTouristId());
+        assertEquals("IN****", check.getPassportPartial());
+    }
+
+    @Test
+    void testSignedRevocationListIsNotAcceptedAsCredential() {
+        when(repository.findByVersionGreaterThanOrderByVersionAsc(anyLong())).thenReturn(List.of());
+        String listToken = (String) service.revocationsSince(0).get("signed");
+
+        IdCredentialCheck check = service.verifyAll(List.of(listToken)).get(0);
+
+        assertFalse(check.isValid());
+        assertEquals("WRONG_TYPE", check.getStatus());
+    }
+}
@@ -0,0 +1,68 @@
+package com.safarsathi.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost: the old filter path (validate + subject + role, each building a parser and
+ * verifying the HMAC) against one parse with the shared parser and the cached authenticate path.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.safarsathi.security.JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-of-at-least-32-bytes";
+
+    private SecretKey key;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        // Nothing is revoked, so the revocation check never reaches the (absent) repository
+        TokenRevocationService revocations = new TokenRevocationService(null, 100_000, 0.001, 10, 60, 3_600_000);
+        jwtService = new JwtService(revocations, SECRET, 3_600_000, 10_000);
+        token = jwtService.generateToken("tourist-1", "tourist");
+    }
+
+    @Benchmark
+    public String tripleParse() {
+        parse(token);
+        String subject = parse(token).getSubject();
+        String role = parse(token).get("role", String.class);
+        return subject + role;
+    }
+
+    @Benchmark
+    public String singleParseUncached() {
+        return jwtService.getSubject(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal authenticateCached() {
+        return jwtService.authenticate(token).orElseThrow();
+    }
+
+    private Claims parse(String jwt) {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
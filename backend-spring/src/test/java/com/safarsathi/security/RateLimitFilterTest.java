@@ -0,0 +1,66 @@
+package com.safarsathi.security;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(mock(JwtService.class), true, 0, 1000,
+            20, 60, 200, 600, 10, 10, 300, 300, 60, 120, 120, 240);
+
+    @Test
+    void testSignInsFromOneAddressAreLimitedPerAccount() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            assertEquals(200, login("tourist" + i + "@example.com").getStatus());
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, login("Repeat@example.com").getStatus());
+        }
+        assertEquals(429, login("repeat@example.com").getStatus());
+    }
+
+    @Test
+    void testAccountRejectionsDoNotDrainTheAddressLimit() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, login("hammered@example.com").getStatus());
+        }
+        for (int i = 0; i < 400; i++) {
+            assertEquals(429, login("hammered@example.com").getStatus());
+        }
+        assertEquals(200, login("other@example.com").getStatus());
+    }
+
+    @Test
+    void testSignInBodyIsStillReadableDownstream() throws Exception {
+        String body = "{\"email\":\"reader@example.com\",\"password\":\"x\"}";
+        StringBuilder seen = new StringBuilder();
+        FilterChain chain = (request, response) ->
+                seen.append(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        filter.doFilter(request(body), new MockHttpServletResponse(), chain);
+
+        assertEquals(body, seen.toString());
+    }
+
+    private MockHttpServletResponse login(String email) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("{\"email\":\"" + email + "\",\"password\":\"x\"}"), response, (req, res) -> { });
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setRemoteAddr("203.0.113.7");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
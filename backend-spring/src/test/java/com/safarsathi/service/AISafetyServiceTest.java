@@ -0,0 +1,45 @@
+package com.safarsathi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AISafetyServiceTest {
+
+    private final AISidecarClient sidecarClient = mock(AISidecarClient.class);
+    private final EmbeddedDangerModel embeddedModel = mock(EmbeddedDangerModel.class);
+    private final AISafetyService service = new AISafetyService(sidecarClient, embeddedModel,
+            mock(DangerRasterService.class), "sidecar", 7, 60, 30, 1000, 50);
+
+    @Test
+    void testBatchTimeoutKeepsCachedCellsAndFallsBackOffTheTimerThread() throws Exception {
+        when(sidecarClient.getJsonAsync(anyString())).thenReturn(
+                CompletableFuture.completedFuture(new ObjectMapper().readTree("{\"dangerScore\":0.4}")));
+        assertEquals(0.4, service.getRealTimeSafetyScore(31.25, 75.70, 12), 1e-9);
+
+        // The sidecar now hangs; only the uncached cell may take the fallback
+        when(sidecarClient.getJsonAsync(anyString())).thenReturn(new CompletableFuture<>());
+        AtomicReference<String> fallbackThread = new AtomicReference<>();
+        when(embeddedModel.isReady()).thenReturn(true);
+        when(embeddedModel.score(anyDouble(), anyDouble(), anyInt())).thenAnswer(call -> {
+            fallbackThread.set(Thread.currentThread().getName());
+            return 0.9;
+        });
+
+        double[] scores = service.getRealTimeSafetyScores(new double[]{31.25, 12.97}, new double[]{75.70, 77.59},
+                new int[]{12, 12});
+
+        assertEquals(0.4, scores[0], 1e-9);
+        assertEquals(0.9, scores[1], 1e-9);
+        assertFalse(fallbackThread.get().contains("Delay"), fallbackThread.get());
+    }
+}
@@ -0,0 +1,27 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.Alert;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertServiceTest {
+
+    @Test
+    void testAlertStatesMatchTypeAndStatusIgnoringCase() {
+        Map<String, String> states = AlertService.alertStates(List.of(
+                alert("t1", "sos", "open"),
+                alert("t1", "RISK_ZONE", "OPEN"),
+                alert("t2", "INACTIVITY", "OPEN"),
+                alert("t3", "SOS", "resolved")));
+
+        assertEquals(Map.of("t1", AlertService.ALERT_STATE_SOS, "t2", AlertService.ALERT_STATE_OPEN), states);
+    }
+
+    private static Alert alert(String touristId, String type, String status) {
+        return Alert.builder().touristId(touristId).alertType(type).status(status).build();
+    }
+}
@@ -0,0 +1,191 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.BlockchainLog;
+import com.safarsathi.entity.LedgerBlock;
+import com.safarsathi.repository.BlockchainLogRepository;
+import com.safarsathi.repository.LedgerBlockRepository;
+import com.safarsathi.util.HashUtil;
+import com.safarsathi.util.MerkleTree;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Block commits against an in-memory stand-in for the blockchain log and ledger block collections.
+ */
+class BlockchainServiceTest {
+
+    private final Map<Integer, BlockchainLog> logs = new TreeMap<>();
+    private final List<LedgerBlock> blocks = new ArrayList<>();
+    private final AtomicBoolean crashOnProofs = new AtomicBoolean();
+    private BlockchainService service;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        LedgerBlockRepository ledgerBlockRepository = mock(LedgerBlockRepository.class);
+        BlockchainLogRepository blockchainLogRepository = mock(BlockchainLogRepository.class);
+
+        when(blockchainLogRepository.findFirstByDataHashOrderByLogIdDesc(any(String.class)))
+                .thenAnswer(inv -> logs.values().stream()
+                        .filter(log -> inv.getArgument(0).equals(log.getDataHash())).findFirst());
+        when(ledgerBlockRepository.findByHeight(any(Long.class)))
+                .thenAnswer(inv -> Optional.of(blocks.get(((Long) inv.getArgument(0)).intValue())));
+
+        when(ledgerBlockRepository.findTopByOrderByHeightDesc())
+                .thenAnswer(inv -> blocks.isEmpty() ? Optional.empty() : Optional.of(blocks.get(blocks.size() - 1)));
+        when(ledgerBlockRepository.insert(any(LedgerBlock.class))).thenAnswer(inv -> {
+            blocks.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(mongoTemplate.find(any(Query.class), eq(BlockchainLog.class)))
+                .thenAnswer(inv -> findLogs(inv.getArgument(0)));
+        when(mongoTemplate.exists(any(Query.class), eq(BlockchainLog.class)))
+                .thenAnswer(inv -> !findLogs(inv.getArgument(0)).isEmpty());
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(BlockchainLog.class)))
+                .thenAnswer(inv -> newBulk());
+
+        service = new BlockchainService(blockchainLogRepository, ledgerBlockRepository,
+                mock(SequenceService.class), mongoTemplate, 2, 100, 60_000);
+    }
+
+    @Test
+    void testCrashAfterBlockInsertDoesNotRecommitItsIssuances() {
+        addPendingLog(1);
+        addPendingLog(2);
+        crashOnProofs.set(true);
+        service.commitPending();   // block 0 inserted, proofs never written
+
+        assertEquals(1, blocks.size());
+        assertEquals("PENDING", logs.get(1).getStatus());
+
+        addPendingLog(3);
+        crashOnProofs.set(false);
+        service.commitPending();
+
+        assertEquals(2, blocks.size());
+        assertEquals(List.of(1, 2), blocks.get(0).getLogIds());
+        assertEquals(List.of(3), blocks.get(1).getLogIds());
+        assertEquals(0L, logs.get(1).getBlockHeight());
+        assertEquals(0L, logs.get(2).getBlockHeight());
+        assertEquals(1L, logs.get(3).getBlockHeight());
+        logs.values().forEach(log -> assertEquals("COMMITTED", log.getStatus()));
+    }
+
+    @Test
+    void testCommittedBlocksChainAndProveInclusion() {
+        for (int i = 1; i <= 5; i++) addPendingLog(i);
+        service.commitPending();
+
+        assertEquals(3, blocks.size());
+        for (int h = 1; h < blocks.size(); h++) {
+            assertEquals(blocks.get(h - 1).getBlockHash(), blocks.get(h).getPrevHash());
+        }
+        for (BlockchainLog log : logs.values()) {
+            LedgerBlock block = blocks.get(log.getBlockHeight().intValue());
+            List<MerkleTree.ProofStep> proof = log.getProof().stream().map(MerkleTree.ProofStep::decode).toList();
+            assertTrue(MerkleTree.verify(HashUtil.fromHex(log.getLeafHash()), proof,
+                    HashUtil.fromHex(block.getMerkleRoot())));
+        }
+    }
+
+    @Test
+    void testProofIsTiedToTheIdBeingVerified() {
+        addPendingLog(1);
+        addPendingLog(2);
+        service.commitPending();
+        assertEquals(BlockchainService.ProofStatus.ANCHORED, service.verifyIDProof("id-1"));
+
+        // Re-pointing a committed record at another ID must not make that ID verify
+        logs.get(2).setDataHash("forged");
+        assertEquals(BlockchainService.ProofStatus.FAILED, service.verifyIDProof("forged"));
+
+        Map<String, Object> proof = service.getProof("id-1").orElseThrow();
+        assertEquals(1, proof.get("logId"));
+        assertEquals("t1", proof.get("touristId"));
+    }
+
+    private void addPendingLog(int logId) {
+        String leafHash = HashUtil.toHex(MerkleTree.hashLeaf(
+                (logId + "|t" + logId + "|id-" + logId).getBytes(StandardCharsets.UTF_8)));
+        logs.put(logId, BlockchainLog.builder()
+                .logId(logId)
+                .touristId("t" + logId)
+                .dataHash("id-" + logId)
+                .leafHash(leafHash)
+                .status("PENDING")
+                .build());
+    }
+
+    /**
+     * Understands the three log queries the service issues: pending batch, block members, and
+     * members still pending.
+     */
+    @SuppressWarnings("unchecked")
+    private List<BlockchainLog> findLogs(Query query) {
+        Document filter = query.getQueryObject();
+        if (filter.containsKey("$and")) {
+            List<Document> parts = (List<Document>) filter.get("$and");
+            List<Integer> ids = (List<Integer>) ((Document) parts.get(0).get("logId")).get("$in");
+            return logs.values().stream()
+                    .filter(log -> ids.contains(log.getLogId()) && "PENDING".equals(log.getStatus()))
+                    .toList();
+        }
+        if (filter.containsKey("logId")) {
+            List<Integer> ids = (List<Integer>) ((Document) filter.get("logId")).get("$in");
+            return logs.values().stream().filter(log -> ids.contains(log.getLogId())).toList();
+        }
+        return logs.values().stream()
+                .filter(log -> "PENDING".equals(log.getStatus()))
+                .limit(query.getLimit() > 0 ? query.getLimit() : Long.MAX_VALUE)
+                .toList();
+    }
+
+    private BulkOperations newBulk() {
+        List<Object[]> updates = new ArrayList<>();
+        return mock(BulkOperations.class, inv -> {
+            switch (inv.getMethod().getName()) {
+                case "updateOne" -> updates.add(inv.getArguments());
+                case "execute" -> {
+                    if (crashOnProofs.get()) throw new IllegalStateException("simulated crash");
+                    updates.forEach(args -> applyUpdate((Query) args[0], (UpdateDefinition) args[1]));
+                    return null;
+                }
+                default -> {
+                    return null;
+                }
+            }
+            return inv.getMock();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyUpdate(Query query, UpdateDefinition update) {
+        Document filter = query.getQueryObject();
+        BlockchainLog log = logs.get(filter.getInteger("logId"));
+        if (log == null || !filter.getString("status").equals(log.getStatus())) return;
+        Document set = (Document) update.getUpdateObject().get("$set");
+        log.setStatus(set.getString("status"));
+        log.setBlockHeight(set.getLong("blockHeight"));
+        log.setLeafIndex(set.getInteger("leafIndex"));
+        log.setProof((List<String>) set.get("proof"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.BlockchainLog;
+import com.safarsathi.entity.EvictedId;
+import com.safarsathi.entity.Tourist;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdVerificationServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final List<BlockchainLog> visible = new ArrayList<>();
+    private final IdVerificationService service = new IdVerificationService(mongoTemplate,
+            mock(BlockchainService.class), 1000, 0.001, 100, 600, 5);
+
+    @Test
+    void testLowerIdWrittenAfterHigherBlockIsStillSynced() {
+        when(mongoTemplate.find(any(Query.class), eq(Tourist.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(EvictedId.class))).thenReturn(List.of());
+        service.initialLoad();
+
+        // Another worker's higher block (600..) becomes visible before the lower block (1..)
+        when(mongoTemplate.find(any(Query.class), eq(BlockchainLog.class)))
+                .thenAnswer(call -> visible.stream().filter(log -> matches(call.getArgument(0), log)).toList());
+        visible.add(log(600, "late-block"));
+        service.sync();
+        visible.add(log(1, "early-block"));
+        service.sync();
+
+        service.verify("early-block");
+        service.verify("late-block");
+        assertEquals(0L, service.getStats().get("rejectedWithoutLookup"));
+    }
+
+    /**
+     * Understands the two sync filters: logId > n, optionally or'ed with logId in [...].
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean matches(Query query, BlockchainLog log) {
+        Document filter = query.getQueryObject();
+        List<Document> branches = filter.containsKey("$or") ? (List<Document>) filter.get("$or") : List.of(filter);
+        return branches.stream().map(branch -> (Document) branch.get("logId")).anyMatch(condition ->
+                condition.containsKey("$gt") ? log.getLogId() > (Integer) condition.get("$gt")
+                        : ((Collection<Integer>) condition.get("$in")).contains(log.getLogId()));
+    }
+
+    private static BlockchainLog log(int logId, String dataHash) {
+        return BlockchainLog.builder().logId(logId).dataHash(dataHash).build();
+    }
+}
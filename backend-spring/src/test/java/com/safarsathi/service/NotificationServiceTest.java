@@ -0,0 +1,80 @@
+package com.safarsathi.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.safarsathi.entity.Notification;
+import com.safarsathi.entity.NotificationCounter;
+import com.safarsathi.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final SequenceService sequenceService = mock(SequenceService.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final NotificationService service =
+            new NotificationService(notificationRepository, sequenceService, mongoTemplate, 200, 24);
+
+    @Test
+    void testCreateAdjustsCounterEvenBeforeItExists() {
+        when(sequenceService.getNextId(anyString())).thenReturn(7L);
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(call -> call.getArgument(0));
+
+        service.createNotification(Notification.builder().touristId("t1").build());
+
+        verify(mongoTemplate).upsert(any(Query.class), any(UpdateDefinition.class), eq(NotificationCounter.class));
+    }
+
+    @Test
+    void testReconciledCounterIsServedWithoutCounting() {
+        when(mongoTemplate.findById("t1", NotificationCounter.class))
+                .thenReturn(new NotificationCounter("t1", 4, 9, Instant.now()));
+
+        assertEquals(4, service.getUnreadCount("t1"));
+        verify(notificationRepository, never()).countByTouristIdAndReadFalse("t1");
+    }
+
+    @Test
+    void testCounterCreatedConcurrentlyIsRecountedNotOverwritten() {
+        when(notificationRepository.countByTouristIdAndReadFalse("t1")).thenReturn(3L);
+        // Absent on the first read; an adjustment then creates it before the seed is inserted
+        when(mongoTemplate.findById("t1", NotificationCounter.class))
+                .thenReturn(null)
+                .thenReturn(new NotificationCounter("t1", 1, 1, null));
+        when(mongoTemplate.insert(any(NotificationCounter.class))).thenThrow(new DuplicateKeyException("exists"));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(NotificationCounter.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(3, service.getUnreadCount("t1"));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(NotificationCounter.class));
+    }
+
+    @Test
+    void testRecountRetriesWhenCounterMovesMeanwhile() {
+        when(notificationRepository.countByTouristIdAndReadFalse("t1")).thenReturn(2L);
+        when(mongoTemplate.findById("t1", NotificationCounter.class))
+                .thenReturn(new NotificationCounter("t1", -1, 5, Instant.now()));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(NotificationCounter.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(2, service.getUnreadCount("t1"));
+        verify(mongoTemplate, times(2))
+                .updateFirst(any(Query.class), any(UpdateDefinition.class), eq(NotificationCounter.class));
+    }
+}
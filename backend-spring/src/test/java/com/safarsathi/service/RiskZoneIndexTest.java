@@ -0,0 +1,36 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.RiskZone;
+import com.safarsathi.repository.RiskZoneRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RiskZoneIndexTest {
+
+    private final RiskZoneRepository riskZoneRepository = mock(RiskZoneRepository.class);
+
+    @Test
+    void testSegmentFindsZonesInCellsItOnlyClips() {
+        // The segment crosses cell (row 0, col 1) for about 100 m, between two samples a km apart
+        RiskZone clipped = zone("clipped", 0.045, 0.055, 100);
+        RiskZone offRoute = zone("off-route", 0.075, 0.025, 100);
+        when(riskZoneRepository.findByActiveTrue()).thenReturn(List.of(clipped, offRoute));
+        RiskZoneIndex index = new RiskZoneIndex(riskZoneRepository, 30);
+
+        List<RiskZone> found = index.zonesAlong(0.01, 0.04, 0.09, 0.0605);
+
+        assertTrue(found.contains(clipped));
+        assertFalse(found.contains(offRoute));
+        // Same result walking the segment backwards
+        assertEquals(found, index.zonesAlong(0.09, 0.0605, 0.01, 0.04));
+    }
+
+    private static RiskZone zone(String id, double lat, double lng, double radiusMeters) {
+        return RiskZone.builder().id(id).centerLat(lat).centerLng(lng).radiusMeters(radiusMeters).build();
+    }
+}
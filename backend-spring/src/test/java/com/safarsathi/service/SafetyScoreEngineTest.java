@@ -0,0 +1,76 @@
+package com.safarsathi.service;
+
+import com.safarsathi.entity.Alert;
+import com.safarsathi.entity.RiskZone;
+import com.safarsathi.entity.Tourist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SafetyScoreEngineTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final AISafetyService aiSafetyService = mock(AISafetyService.class);
+    private SafetyScoreEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.find(any(Query.class), eq(Alert.class))).thenReturn(List.of());
+        // Maximum danger: a 30 point penalty with the default weight
+        when(aiSafetyService.getRealTimeSafetyScoreAsync(anyDouble(), anyDouble(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(1.0));
+        engine = new SafetyScoreEngine(mongoTemplate, aiSafetyService, 60, 30, 10, 25, 5, 360);
+    }
+
+    @Test
+    void testReloadedScoreDoesNotCountDangerTwice() {
+        Tourist tourist = located("t1");
+        tourist.setSafetyScore(70.0);
+        tourist.setSafetyZonePenalty(0.0);
+        tourist.setSafetyZonePenaltyAt(Instant.now());
+        tourist.setSafetyDangerPenalty(30.0);
+
+        engine.onLocation(tourist);
+
+        assertEquals(70.0, engine.currentScore(tourist), 0.01);
+    }
+
+    @Test
+    void testLegacyScoreDeficitIsReplacedByFirstDangerLookup() {
+        Tourist tourist = located("t2");
+        tourist.setSafetyScore(70.0);
+
+        engine.onLocation(tourist);
+
+        assertEquals(70.0, engine.currentScore(tourist), 0.01);
+    }
+
+    @Test
+    void testZoneEntryAlertIsNotPenalizedOnTopOfZonePenalty() {
+        Tourist tourist = Tourist.builder().id("t3").safetyScore(100.0).build();
+        RiskZone zone = new RiskZone();
+        zone.setRiskLevel("HIGH");
+
+        engine.onZonesEntered(tourist, List.of(zone));
+        engine.onAlertStatus(Alert.builder().touristId("t3").alertType("RISK_ZONE").status("OPEN").build(), null);
+
+        assertEquals(100.0 - SafetyScoreEngine.penaltyFor(zone), engine.currentScore(tourist), 0.01);
+    }
+
+    private static Tourist located(String id) {
+        return Tourist.builder().id(id).currentLat(31.25).currentLng(75.70).build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingRefresherTest {
+
+    @Test
+    void testRequestDuringRunSchedulesOneMoreRun() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        CoalescingRefresher refresher = new CoalescingRefresher("test", () -> {
+            if (runs.incrementAndGet() == 1) {
+                firstStarted.countDown();
+                await(releaseFirst);
+            } else {
+                secondDone.countDown();
+            }
+        }, Executors.newSingleThreadExecutor());
+
+        refresher.request();
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        refresher.request();   // arrives mid-run
+        refresher.request();   // coalesced with the previous one
+        releaseFirst.countDown();
+
+        assertTrue(secondDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void testFailedRunDoesNotBlockLaterRequests() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch recovered = new CountDownLatch(1);
+        CoalescingRefresher refresher = new CoalescingRefresher("test", () -> {
+            if (runs.incrementAndGet() == 1) throw new IllegalStateException("db down");
+            recovered.countDown();
+        }, Runnable::run);
+
+        refresher.request();
+        assertFalse(refresher.isRunning());
+        refresher.request();
+
+        assertTrue(recovered.await(1, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DangerRasterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteMapAndLookup() throws Exception {
+        Path file = tempDir.resolve("raster.bin");
+        List<DangerRaster.Region> regions = List.of(
+                new DangerRaster.Region("a", 30.0, 75.0, 30.1, 75.2),
+                new DangerRaster.Region("b", 26.0, 91.0, 26.05, 91.05));
+        // Score encodes hour and latitude so cell addressing can be checked
+        DangerRaster.write(file, 0.01, regions, (lat, lng, hour) -> hour / 100.0 + (lat > 30.05 ? 0.5 : 0.0));
+
+        DangerRaster raster = DangerRaster.map(file);
+        assertEquals(0.03, raster.lookup(30.01, 75.01, 3), 1e-9);
+        assertEquals(0.53, raster.lookup(30.09, 75.19, 3), 1e-9);
+        assertEquals(0.23, raster.lookup(26.02, 91.02, 23), 1e-9);
+        assertTrue(Double.isNaN(raster.lookup(10.0, 10.0, 3)));
+        assertTrue(Double.isNaN(raster.lookup(30.05, 75.21, 3)));
+    }
+}
@@ -0,0 +1,32 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecayingValueTest {
+
+    @Test
+    void testHalvesEveryHalfLife() {
+        DecayingValue value = new DecayingValue(60_000, 40, 0);
+        assertEquals(40, value.valueAt(0), 1e-9);
+        assertEquals(20, value.valueAt(60_000), 1e-9);
+        assertEquals(10, value.valueAt(120_000), 1e-9);
+    }
+
+    @Test
+    void testAddRebasesBeforeAccumulating() {
+        DecayingValue value = new DecayingValue(60_000, 40, 0);
+        value.add(10, 60_000);
+        assertEquals(30, value.valueAt(60_000), 1e-9);
+        assertEquals(15, value.valueAt(120_000), 1e-9);
+    }
+
+    @Test
+    void testNeverNegativeAndIgnoresClockGoingBackwards() {
+        DecayingValue value = new DecayingValue(60_000, 10, 1_000);
+        assertEquals(10, value.valueAt(0), 1e-9);
+        value.add(-50, 1_000);
+        assertEquals(0, value.valueAt(2_000), 1e-9);
+    }
+}
@@ -0,0 +1,47 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Ed25519TokensTest {
+
+    private final KeyPair keys = Ed25519Tokens.generateKeyPair();
+
+    @Test
+    void testSignedPayloadRoundTrips() {
+        byte[] payload = "{\"sub\":\"t1\",\"exp\":1900000000}".getBytes(StandardCharsets.UTF_8);
+        String token = Ed25519Tokens.sign(keys.getPrivate(), payload);
+
+        assertArrayEquals(payload, Ed25519Tokens.verify(keys.getPublic(), token).orElseThrow());
+    }
+
+    @Test
+    void testTamperedOrForeignTokensAreRejected() {
+        String token = Ed25519Tokens.sign(keys.getPrivate(), "{\"sub\":\"t1\"}".getBytes(StandardCharsets.UTF_8));
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"t2\"}".getBytes(StandardCharsets.UTF_8)) + token.substring(token.indexOf('.'));
+
+        assertTrue(Ed25519Tokens.verify(keys.getPublic(), forged).isEmpty());
+        assertTrue(Ed25519Tokens.verify(Ed25519Tokens.generateKeyPair().getPublic(), token).isEmpty());
+        assertTrue(Ed25519Tokens.verify(keys.getPublic(), "not-a-token").isEmpty());
+        assertTrue(Ed25519Tokens.verify(keys.getPublic(), "a.b.c").isEmpty());
+    }
+
+    @Test
+    void testEncodedKeysDecodeToSamePair() {
+        Base64.Encoder encoder = Base64.getEncoder();
+        KeyPair decoded = Ed25519Tokens.decodeKeyPair(
+                encoder.encodeToString(keys.getPrivate().getEncoded()),
+                encoder.encodeToString(keys.getPublic().getEncoded()));
+        String token = Ed25519Tokens.sign(decoded.getPrivate(), new byte[]{1, 2, 3});
+
+        assertTrue(Ed25519Tokens.verify(keys.getPublic(), token).isPresent());
+        assertEquals(Ed25519Tokens.keyId(keys.getPublic()), Ed25519Tokens.keyId(decoded.getPublic()));
+        assertThrows(IllegalArgumentException.class, () -> Ed25519Tokens.decodeKeyPair("AAAA", "AAAA"));
+    }
+}
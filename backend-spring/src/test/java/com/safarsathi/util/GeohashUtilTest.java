@@ -0,0 +1,26 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeohashUtilTest {
+
+    @Test
+    void testEncodeKnownValue() {
+        // Reference value for 57.64911, 10.40744
+        assertEquals("u4pruydqqvj", GeohashUtil.encode(57.64911, 10.40744, 11));
+        assertEquals("u4pru", GeohashUtil.encode(57.64911, 10.40744, 5));
+    }
+
+    @Test
+    void testCenterRoundTripsIntoSameCell() {
+        String cell = GeohashUtil.encode(30.7333, 76.7794, 7);
+        double[] center = GeohashUtil.center(cell);
+        assertEquals(cell, GeohashUtil.encode(center[0], center[1], 7));
+
+        double[] bounds = GeohashUtil.bounds(cell);
+        assertTrue(bounds[0] <= 30.7333 && 30.7333 <= bounds[1]);
+        assertTrue(bounds[2] <= 76.7794 && 76.7794 <= bounds[3]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.safarsathi.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SHA-256 + hex of an ID-sized input: the previous implementation (getInstance per call,
+ * Integer.toHexString per byte) against the thread-local digest and table encoder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashUtilBenchmark {
+
+    private final String input = "6f1c2a3e-0b4d-4e5f-8a9b-1c2d3e4f5a6b|P1234567|2026-10-19T10:15:30Z";
+    private final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+    @Benchmark
+    public String previousSha256() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) hexString.append('0');
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    @Benchmark
+    public String sha256String() {
+        return HashUtil.sha256(input);
+    }
+
+    @Benchmark
+    public String sha256Bytes() {
+        return HashUtil.sha256Hex(bytes);
+    }
+
+    @Benchmark
+    public byte[] sha256ByteBufferRaw() {
+        return HashUtil.sha256(buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HashUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -2,10 +2,24 @@ package com.safarsathi.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HashUtilTest {
 
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
     @Test
     void testSha256ProducesDeterministicOutput() {
         String hash1 = HashUtil.sha256("hello");
@@ -20,4 +34,60 @@ class HashUtilTest {
         String hash2 = HashUtil.sha256("world");
         assertNotEquals(hash1, hash2);
     }
+
+    @Test
+    void testSha256MatchesKnownVector() {
+        assertEquals(ABC_SHA256, HashUtil.sha256("abc"));
+        assertEquals(ABC_SHA256, HashUtil.sha256Hex("abc".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testByteBufferOverloadLeavesPositionUntouched() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.put("xxabc".getBytes(StandardCharsets.UTF_8)).flip();
+        buffer.position(2);
+
+        assertEquals(ABC_SHA256, HashUtil.sha256Hex(buffer));
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    void testStreamingMatchesInMemoryForLargeInput() throws IOException {
+        byte[] large = new byte[1_000_003];
+        for (int i = 0; i < large.length; i++) large[i] = (byte) (i * 31);
+
+        byte[] streamed = HashUtil.sha256(new ByteArrayInputStream(large));
+        assertArrayEquals(HashUtil.sha256(large), streamed);
+    }
+
+    @Test
+    void testHexRoundTrip() {
+        byte[] bytes = {0, 1, 15, 16, (byte) 0x7f, (byte) 0x80, (byte) 0xff};
+        assertEquals("00010f107f80ff", HashUtil.toHex(bytes));
+        assertArrayEquals(bytes, HashUtil.fromHex("00010f107f80ff"));
+        assertThrows(IllegalArgumentException.class, () -> HashUtil.fromHex("abc"));
+        assertThrows(IllegalArgumentException.class, () -> HashUtil.fromHex("zz"));
+    }
+
+    @Test
+    void testConcurrentCallersGetIndependentDigests() throws Exception {
+        String expected = HashUtil.sha256("tourist");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = IntStream.range(0, 64)
+                    .mapToObj(i -> (Callable<Boolean>) () -> {
+                        for (int j = 0; j < 500; j++) {
+                            if (!expected.equals(HashUtil.sha256("tourist"))) return false;
+                        }
+                        return true;
+                    })
+                    .toList();
+            for (Future<Boolean> result : pool.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(Arrays.equals(HashUtil.fromHex(expected), HashUtil.sha256("tourist".getBytes(StandardCharsets.UTF_8))));
+    }
 }
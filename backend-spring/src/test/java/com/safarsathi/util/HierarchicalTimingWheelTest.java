@@ -0,0 +1,59 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void testExpiresAtDeadlineAcrossLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 0);
+        wheel.schedule("near", 5_000);
+        wheel.schedule("mid", 70_000);     // level 1
+        wheel.schedule("far", 400_000);    // level 2
+
+        assertEquals(List.of(), wheel.advanceTo(4_000));
+        assertEquals(List.of("near"), wheel.advanceTo(5_000));
+        assertEquals(List.of(), wheel.advanceTo(69_000));
+        assertEquals(List.of("mid"), wheel.advanceTo(70_000));
+        assertEquals(List.of(), wheel.advanceTo(399_000));
+        assertEquals(List.of("far"), wheel.advanceTo(400_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testRescheduleReplacesPreviousDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 0);
+        wheel.schedule("t1", 10_000);
+        wheel.schedule("t1", 30_000);
+
+        assertEquals(List.of(), wheel.advanceTo(20_000));
+        assertEquals(List.of("t1"), wheel.advanceTo(30_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancelAndFarJump() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, 0);
+        wheel.schedule("cancelled", 3_000);
+        wheel.schedule("beyondHorizon", 200_000); // horizon is 64s
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+
+        List<String> expired = new ArrayList<>(wheel.advanceTo(150_000));
+        assertTrue(expired.isEmpty());
+        expired.addAll(wheel.advanceTo(200_000));
+        assertEquals(List.of("beyondHorizon"), expired);
+    }
+
+    @Test
+    void testPastDeadlineFiresOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 50_000);
+        wheel.schedule("overdue", 10_000);
+        assertEquals(List.of("overdue"), wheel.advanceTo(51_000));
+    }
+}
@@ -0,0 +1,61 @@
+package com.safarsathi.util;
+
+import com.safarsathi.util.IncidentDataset.Incident;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KernelDangerModelTest {
+
+    @Test
+    void testBeatsMeanBaselineOnHeldOutIncidents() throws Exception {
+        List<Incident> incidents;
+        try (InputStream in = getClass().getResourceAsStream("/model/incidents.bin")) {
+            assertNotNull(in);
+            incidents = IncidentDataset.readBinary(in);
+        }
+        List<Incident> train = new ArrayList<>();
+        List<Incident> holdout = new ArrayList<>();
+        for (int i = 0; i < incidents.size(); i++) {
+            (i % 10 == 0 ? holdout : train).add(incidents.get(i));
+        }
+        KernelDangerModel model = new KernelDangerModel(train, 1.5, 1.5, 0.1, 0.0);
+        double mean = train.stream().mapToDouble(Incident::dangerScore).average().orElseThrow();
+
+        double modelError = 0, baselineError = 0;
+        for (Incident row : holdout) {
+            modelError += Math.abs(model.score(row.lat(), row.lng(), row.hour()) - row.dangerScore());
+            baselineError += Math.abs(mean - row.dangerScore());
+        }
+        assertTrue(modelError < baselineError * 0.95,
+                "model MAE " + modelError / holdout.size() + " vs baseline " + baselineError / holdout.size());
+    }
+
+    @Test
+    void testCsvAndBinaryRoundTrip() throws Exception {
+        String csv = "Timestamp,District,Latitude,Longitude,Incident_Type,Hour,Danger_Score\n"
+                + "2026-01-14 08:24:26,Jalandhar,31.3088,75.5665,Robbery,14,0.42\n"
+                + "2025-03-20 06:24:26,Patiala,30.3189,76.3839,Theft,16,0.15\n";
+        List<Incident> parsed = IncidentDataset.readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, parsed.size());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IncidentDataset.writeBinary(parsed, out);
+        List<Incident> restored = IncidentDataset.readBinary(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(14, restored.get(0).hour());
+        assertEquals(0.42, restored.get(0).dangerScore(), 1e-9);
+        assertEquals(31.3088, restored.get(0).lat(), 1e-4);
+
+        // Far from any incident the prior pulls the score to zero; next to one it approaches its score
+        KernelDangerModel model = new KernelDangerModel(restored, 1.5, 1.5, 0.1, 0.0);
+        assertEquals(0.0, model.score(20.0, 70.0, 14), 1e-9);
+        assertEquals(0.42, model.score(31.3088, 75.5665, 14), 0.05);
+    }
+}
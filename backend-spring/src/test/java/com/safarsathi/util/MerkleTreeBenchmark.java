@@ -0,0 +1,62 @@
+package com.safarsathi.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger block cost by block size: committing a block (build the tree and every proof) and
+ * verifying one proof. Proof length is ceil(log2 n) steps of 32 bytes, e.g. 8 steps at 256.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MerkleTreeBenchmark {
+
+    @Param({"64", "256", "1024"})
+    public int blockSize;
+
+    private List<byte[]> leaves;
+    private MerkleTree tree;
+    private List<MerkleTree.ProofStep> proof;
+    private byte[] root;
+
+    @Setup
+    public void setup() {
+        leaves = new ArrayList<>(blockSize);
+        for (int i = 0; i < blockSize; i++) {
+            leaves.add(MerkleTree.hashLeaf((i + "|tourist-" + i + "|id-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        tree = MerkleTree.fromLeafHashes(leaves);
+        proof = tree.proof(blockSize / 2);
+        root = tree.root();
+    }
+
+    @Benchmark
+    public int commitBlock() {
+        MerkleTree built = MerkleTree.fromLeafHashes(leaves);
+        int steps = 0;
+        for (int i = 0; i < blockSize; i++) {
+            steps += built.proof(i).size();
+        }
+        return steps;
+    }
+
+    @Benchmark
+    public boolean verifyProof() {
+        return MerkleTree.verify(leaves.get(blockSize / 2), proof, root);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MerkleTreeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
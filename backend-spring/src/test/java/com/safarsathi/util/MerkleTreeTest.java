@@ -0,0 +1,56 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleTreeTest {
+
+    private static List<byte[]> leaves(int n) {
+        List<byte[]> leaves = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            leaves.add(MerkleTree.hashLeaf(("tourist-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        return leaves;
+    }
+
+    @Test
+    void testEveryLeafProvesAgainstRoot() {
+        for (int n : new int[]{1, 2, 3, 7, 8, 33}) {
+            List<byte[]> leaves = leaves(n);
+            MerkleTree tree = MerkleTree.fromLeafHashes(leaves);
+            int maxSteps = 32 - Integer.numberOfLeadingZeros(n - 1);
+            for (int i = 0; i < n; i++) {
+                List<MerkleTree.ProofStep> proof = tree.proof(i);
+                assertTrue(proof.size() <= maxSteps);
+                assertTrue(MerkleTree.verify(leaves.get(i), proof, tree.root()), "n=" + n + " i=" + i);
+            }
+        }
+    }
+
+    @Test
+    void testTamperedLeafOrProofFails() {
+        List<byte[]> leaves = leaves(5);
+        MerkleTree tree = MerkleTree.fromLeafHashes(leaves);
+        List<MerkleTree.ProofStep> proof = tree.proof(2);
+
+        assertFalse(MerkleTree.verify(leaves.get(3), proof, tree.root()));
+        List<MerkleTree.ProofStep> flipped = new ArrayList<>(proof);
+        flipped.set(0, new MerkleTree.ProofStep(proof.get(0).sibling(), !proof.get(0).siblingOnLeft()));
+        assertFalse(MerkleTree.verify(leaves.get(2), flipped, tree.root()));
+    }
+
+    @Test
+    void testProofStepRoundTrip() {
+        MerkleTree tree = MerkleTree.fromLeafHashes(leaves(4));
+        MerkleTree.ProofStep step = tree.proof(1).get(0);
+        MerkleTree.ProofStep decoded = MerkleTree.ProofStep.decode(step.encode());
+        assertArrayEquals(step.sibling(), decoded.sibling());
+        assertEquals(step.siblingOnLeft(), decoded.siblingOnLeft());
+        assertThrows(IllegalArgumentException.class, () -> MerkleTree.ProofStep.decode("X:00"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SphericalKdTreeTest {
+
+    private record Place(int id, double lat, double lng, boolean flagged) {
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            places.add(new Place(i, 24 + random.nextDouble() * 8, 73 + random.nextDouble() * 23, random.nextBoolean()));
+        }
+        SphericalKdTree<Place> tree = new SphericalKdTree<>(places, Place::lat, Place::lng);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 24 + random.nextDouble() * 8;
+            double lng = 73 + random.nextDouble() * 23;
+            List<Place> expected = places.stream()
+                    .filter(Place::flagged)
+                    .sorted(Comparator.comparingDouble(p -> GeoFenceUtil.haversineMeters(lat, lng, p.lat(), p.lng())))
+                    .limit(5)
+                    .toList();
+            List<SphericalKdTree.Neighbor<Place>> actual = tree.nearest(lat, lng, 5, Place::flagged);
+
+            assertEquals(expected, actual.stream().map(SphericalKdTree.Neighbor::item).toList());
+            for (SphericalKdTree.Neighbor<Place> neighbor : actual) {
+                double haversine = GeoFenceUtil.haversineMeters(lat, lng, neighbor.item().lat(), neighbor.item().lng());
+                assertEquals(haversine, neighbor.distanceMeters(), 1.0);
+            }
+        }
+    }
+
+    @Test
+    void testFewerThanKAndEmpty() {
+        SphericalKdTree<Place> tree = new SphericalKdTree<>(
+                List.of(new Place(1, 26.14, 91.73, false), new Place(2, 26.18, 91.75, false)), Place::lat, Place::lng);
+        assertEquals(2, tree.nearest(26.15, 91.74, 10, null).size());
+        assertTrue(tree.nearest(26.15, 91.74, 0, null).isEmpty());
+        assertTrue(new SphericalKdTree<Place>(List.of(), Place::lat, Place::lng).nearest(0, 0, 3, null).isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.safarsathi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void testBurstThenRefill() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucketLimiter limiter = new TokenBucketLimiter(4, 100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:1", 3, 1));
+        }
+        assertEquals(1000, limiter.tryAcquire("ip:1", 3, 1));
+
+        clock.set(500);
+        assertEquals(500, limiter.tryAcquire("ip:1", 3, 1));
+        clock.set(1000);
+        assertEquals(0, limiter.tryAcquire("ip:1", 3, 1));
+        // Other keys have their own bucket
+        assertEquals(0, limiter.tryAcquire("ip:2", 3, 1));
+    }
+
+    @Test
+    void testReleaseReturnsATokenUpToCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(4, 100, () -> 0);
+        assertEquals(0, limiter.tryAcquire("ip:1", 1, 1));
+        limiter.release("ip:1");
+        limiter.release("ip:1");
+        assertEquals(0, limiter.tryAcquire("ip:1", 1, 1));
+        assertEquals(1000, limiter.tryAcquire("ip:1", 1, 1));
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 100, clock::get);
+        limiter.tryAcquire("a", 2, 1);
+        limiter.tryAcquire("b", 2, 1);
+        limiter.tryAcquire("b", 2, 1);
+
+        clock.set(1000);
+        limiter.evictIdle();
+        assertEquals(1, limiter.size());
+        clock.set(2000);
+        limiter.evictIdle();
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void testStripeSizeIsBounded() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 10, () -> 0);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("k" + i, 1, 1);
+        }
+        assertEquals(10, limiter.size());
+    }
+}